@@ -0,0 +1,147 @@
+--PRIORITY
+ CREATE TABLE IF NOT EXISTS PRIORITY(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	NAME VARCHAR NOT NULL);
+
+--PRIORITY_PERIOD
+ CREATE TABLE IF NOT EXISTS PRIORITY_PERIOD(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	PRIORITY_FK INTEGER NOT NULL REFERENCES PRIORITY(ID),
+	PERIOD_FK INTEGER NOT NULL REFERENCES PERIOD(ID));
+
+--PERIOD
+ CREATE TABLE IF NOT EXISTS PERIOD(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	MINUTES INTEGER,
+	DAYS INTEGER,
+	MONTHS INTEGER);
+
+--CIRCLE
+ CREATE TABLE IF NOT EXISTS CIRCLE(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	END_DATE INTEGER,
+	PERIOD_FK INTEGER NOT NULL REFERENCES PERIOD(ID));
+
+--CATEGORY
+ CREATE TABLE IF NOT EXISTS CATEGORY(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	NAME VARCHAR NOT NULL,
+	DESCRIPTION VARCHAR);
+
+--APPOINTMENT_GROUP
+ CREATE TABLE IF NOT EXISTS APPOINTMENT_GROUP(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	NAME VARCHAR NOT NULL,
+	DESCRIPTION VARCHAR,
+	PRIORITY_FK INTEGER NOT NULL REFERENCES PRIORITY(ID),
+	CATEGORY_FK INTEGER REFERENCES CATEGORY(ID));
+
+--APPOINTMENT_APPOINTMENT_GROUP
+ CREATE TABLE IF NOT EXISTS APPOINTMENT_APPOINTMENT_GROUP(
+	APPOINTMENT_FK INTEGER NOT NULL REFERENCES APPOINTMENT(ID),
+	APPOINTMENT_GROUP_FK INTEGER NOT NULL REFERENCES APPOINTMENT_GROUP(ID));
+
+--APPOINTMENT
+ CREATE TABLE IF NOT EXISTS APPOINTMENT(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	START_DATE INTEGER NOT NULL,
+	END_DATE INTEGER NOT NULL,
+	CIRCLE_FK INTEGER REFERENCES CIRCLE(ID));
+
+--PRIORITY
+ INSERT OR IGNORE INTO PRIORITY
+	(ID,	NAME) VALUES
+	(1,		'LOW'),
+	(2,		'NORMAL'),
+	(3,		'HIGH');
+
+--PERIOD
+ INSERT OR IGNORE INTO PERIOD
+	(ID,	MINUTES,	DAYS,	MONTHS) VALUES
+	(1,		0,			1,		0),
+	(2,		180,		0,		0);
+
+--PERIOD
+ INSERT OR IGNORE INTO PERIOD
+	(ID,	MINUTES,	DAYS,	MONTHS) VALUES
+	(1,		0,			0,		0),
+	(2,		24,			0,		0),
+	(3,		60,			0,		0),
+	(4,		15,			0,		0);
+
+--PRIORITY_PERIOD
+ INSERT OR IGNORE INTO PRIORITY_PERIOD
+	(ID,	PRIORITY_FK,	PERIOD_FK) VALUES
+	(1,		1,				2),
+	(2,		1,				3),
+	(3,		1,				4),
+	(5,		2,				3),
+	(6,		2,				4);
+
+--CATEGORY
+ INSERT OR IGNORE INTO CATEGORY
+	(ID,	NAME,	DESCRIPTION) VALUES
+	(1,		'NONE',	'');
+
+--PRIORITY_PERIOD
+ CREATE TRIGGER IF NOT EXISTS PRIORITY_PERIOD_DELETE_TRIGGER
+	AFTER DELETE ON PRIORITY_PERIOD
+	FOR EACH ROW
+	WHEN (SELECT COUNT(*) FROM PRIORITY_PERIOD
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0 AND
+		(SELECT COUNT(*) FROM CIRCLE
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0
+	BEGIN
+		DELETE FROM PERIOD
+			WHERE ID = OLD.PERIOD_FK; END;
+
+ CREATE TRIGGER IF NOT EXISTS PRIORITY_PERIOD_UPDATE_TRIGGER
+	AFTER UPDATE OF PERIOD_FK ON PRIORITY_PERIOD
+	FOR EACH ROW
+	WHEN (SELECT COUNT(*) FROM PRIORITY_PERIOD
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0 AND
+		(SELECT COUNT(*) FROM CIRCLE
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0
+	BEGIN
+		DELETE FROM PERIOD
+			WHERE ID = OLD.PERIOD_FK; END;
+
+--CIRCLE
+ CREATE TRIGGER IF NOT EXISTS CIRCLE_DELETE_TRIGGER
+	AFTER DELETE ON CIRCLE
+	FOR EACH ROW
+	WHEN (SELECT COUNT(*) FROM PRIORITY_PERIOD
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0 AND
+		(SELECT COUNT(*) FROM CIRCLE
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0
+	BEGIN
+		DELETE FROM PERIOD
+			WHERE ID = OLD.PERIOD_FK; END;
+
+ CREATE TRIGGER IF NOT EXISTS CIRCLE_UPDATE_TRIGGER
+	AFTER UPDATE OF PERIOD_FK ON CIRCLE
+	FOR EACH ROW
+	WHEN (SELECT COUNT(*) FROM PRIORITY_PERIOD
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0 AND
+		(SELECT COUNT(*) FROM CIRCLE
+		WHERE PERIOD_FK = OLD.PERIOD_FK) = 0
+	BEGIN
+		DELETE FROM PERIOD
+			WHERE ID = OLD.PERIOD_FK; END;
+
+DROP VIEW IF EXISTS APPOINTMENTS_VIEW;
+
+CREATE VIEW APPOINTMENTS_VIEW AS
+	SELECT AG.NAME, AG.DESCRIPTION, A.START_DATE, A.END_DATE,
+	(P.MINUTES + P.DAYS * 24 * 60) AS REPETITION_MINUTES,
+	P.MONTHS AS REPETITION_MONTHS,
+	IFNULL(C.END_DATE, A.START_DATE) AS REPETITION_END
+		FROM APPOINTMENT_APPOINTMENT_GROUP AS AAG
+		JOIN APPOINTMENT_GROUP AS AG
+			ON AAG.APPOINTMENT_GROUP_FK = AG.ID
+		JOIN APPOINTMENT AS A
+			ON AAG.APPOINTMENT_FK = A.ID
+		LEFT JOIN CIRCLE AS C
+			ON A.CIRCLE_FK = C.ID
+		LEFT JOIN PERIOD AS P
+			ON C.PERIOD_FK = P.ID;
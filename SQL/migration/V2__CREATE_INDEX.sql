@@ -0,0 +1,29 @@
+--APPOINTMENT
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_START_DATE_INDEX
+	ON APPOINTMENT(START_DATE);
+
+--APPOINTMENT_GROUP
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_GROUP_PRIORITY_FK_INDEX
+	ON APPOINTMENT_GROUP(PRIORITY_FK);
+
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_GROUP_CATEGORY_FK_INDEX
+	ON APPOINTMENT_GROUP(CATEGORY_FK);
+
+--APPOINTMENT_APPOINTMENT_GROUP
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_APPOINTMENT_GROUP_APPOINTMENT_FK_INDEX
+	ON APPOINTMENT_APPOINTMENT_GROUP(APPOINTMENT_FK);
+
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_APPOINTMENT_GROUP_APPOINTMENT_GROUP_FK_INDEX
+	ON APPOINTMENT_APPOINTMENT_GROUP(APPOINTMENT_GROUP_FK);
+
+--PRIORITY_PERIOD
+ CREATE INDEX IF NOT EXISTS PRIORITY_PERIOD_PRIORITY_FK_INDEX
+	ON PRIORITY_PERIOD(PRIORITY_FK);
+
+--PERIOD
+ CREATE INDEX IF NOT EXISTS PERIOD_INDEX
+	ON PERIOD(MINUTES, DAYS, MONTHS);
+
+--CIRCLE
+ CREATE INDEX IF NOT EXISTS CIRCLE_INDEX
+	ON CIRCLE(PERIOD_FK, END_DATE);
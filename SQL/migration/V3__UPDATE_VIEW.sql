@@ -1,7 +1,9 @@
 DROP VIEW IF EXISTS APPOINTMENTS_VIEW;
 
 CREATE VIEW APPOINTMENTS_VIEW AS
-	SELECT AG.NAME, AG.DESCRIPTION, A.START_DATE, A.END_DATE,
+	SELECT A.ID AS APPOINTMENT_ID, AG.ID AS APPOINTMENT_GROUP_ID,
+	AG.PRIORITY_FK, AG.CATEGORY_FK,
+	AG.NAME, AG.DESCRIPTION, A.START_DATE, A.END_DATE,
 	(P.MINUTES + P.DAYS * 24 * 60) AS REPETITION_MINUTES,
 	P.MONTHS AS REPETITION_MONTHS,
 	IFNULL(C.END_DATE, A.START_DATE) AS REPETITION_END
@@ -0,0 +1,38 @@
+--APPOINTMENT_OCCURRENCE
+ CREATE TABLE IF NOT EXISTS APPOINTMENT_OCCURRENCE(
+	APPOINTMENT_FK INTEGER NOT NULL REFERENCES APPOINTMENT(ID),
+	START_DATE INTEGER NOT NULL,
+	END_DATE INTEGER NOT NULL);
+
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_OCCURRENCE_START_DATE_INDEX
+	ON APPOINTMENT_OCCURRENCE(START_DATE);
+
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_OCCURRENCE_APPOINTMENT_FK_INDEX
+	ON APPOINTMENT_OCCURRENCE(APPOINTMENT_FK);
+
+--OCCURRENCE_HORIZON
+ CREATE TABLE IF NOT EXISTS OCCURRENCE_HORIZON(
+	ID INTEGER PRIMARY KEY CHECK (ID = 1),
+	START_DATE INTEGER NOT NULL,
+	END_DATE INTEGER NOT NULL,
+	MAX_LENGTH INTEGER NOT NULL);
+
+--APPOINTMENT
+ CREATE INDEX IF NOT EXISTS APPOINTMENT_CIRCLE_FK_INDEX
+	ON APPOINTMENT(CIRCLE_FK);
+
+ CREATE TRIGGER IF NOT EXISTS APPOINTMENT_OCCURRENCE_DELETE_TRIGGER
+	AFTER DELETE ON APPOINTMENT
+	FOR EACH ROW
+	BEGIN
+		DELETE FROM APPOINTMENT_OCCURRENCE
+			WHERE APPOINTMENT_FK = OLD.ID; END;
+
+ CREATE TRIGGER IF NOT EXISTS APPOINTMENT_CIRCLE_DELETE_TRIGGER
+	AFTER DELETE ON APPOINTMENT
+	FOR EACH ROW
+	WHEN (SELECT COUNT(*) FROM APPOINTMENT
+		WHERE CIRCLE_FK = OLD.CIRCLE_FK) = 0
+	BEGIN
+		DELETE FROM CIRCLE
+			WHERE ID = OLD.CIRCLE_FK; END;
@@ -0,0 +1,43 @@
+--RECURRENCE_RULE
+ CREATE TABLE IF NOT EXISTS RECURRENCE_RULE(
+	ID INTEGER PRIMARY KEY AUTOINCREMENT,
+	WEEKDAYS INTEGER NOT NULL,
+	MONTH_DAYS INTEGER NOT NULL,
+	NTH_WEEKDAYS INTEGER NOT NULL);
+
+ CREATE UNIQUE INDEX IF NOT EXISTS RECURRENCE_RULE_DAYS_INDEX
+	ON RECURRENCE_RULE(WEEKDAYS, MONTH_DAYS, NTH_WEEKDAYS);
+
+--CIRCLE
+ ALTER TABLE CIRCLE ADD COLUMN RULE_FK INTEGER REFERENCES RECURRENCE_RULE(ID);
+
+ CREATE TRIGGER IF NOT EXISTS CIRCLE_RULE_DELETE_TRIGGER
+	AFTER DELETE ON CIRCLE
+	FOR EACH ROW
+	WHEN OLD.RULE_FK IS NOT NULL AND (SELECT COUNT(*) FROM CIRCLE
+		WHERE RULE_FK = OLD.RULE_FK) = 0
+	BEGIN
+		DELETE FROM RECURRENCE_RULE
+			WHERE ID = OLD.RULE_FK; END;
+
+DROP VIEW IF EXISTS APPOINTMENTS_VIEW;
+
+CREATE VIEW APPOINTMENTS_VIEW AS
+	SELECT A.ID AS APPOINTMENT_ID, AG.ID AS APPOINTMENT_GROUP_ID,
+	AG.PRIORITY_FK, AG.CATEGORY_FK,
+	AG.NAME, AG.DESCRIPTION, A.START_DATE, A.END_DATE,
+	(P.MINUTES + P.DAYS * 24 * 60) AS REPETITION_MINUTES,
+	P.MONTHS AS REPETITION_MONTHS,
+	IFNULL(C.END_DATE, A.START_DATE) AS REPETITION_END,
+	R.WEEKDAYS, R.MONTH_DAYS, R.NTH_WEEKDAYS
+		FROM APPOINTMENT_APPOINTMENT_GROUP AS AAG
+		JOIN APPOINTMENT_GROUP AS AG
+			ON AAG.APPOINTMENT_GROUP_FK = AG.ID
+		JOIN APPOINTMENT AS A
+			ON AAG.APPOINTMENT_FK = A.ID
+		LEFT JOIN CIRCLE AS C
+			ON A.CIRCLE_FK = C.ID
+		LEFT JOIN PERIOD AS P
+			ON C.PERIOD_FK = P.ID
+		LEFT JOIN RECURRENCE_RULE AS R
+			ON C.RULE_FK = R.ID;
@@ -0,0 +1,47 @@
+--APPOINTMENT_SPAN
+ CREATE VIRTUAL TABLE IF NOT EXISTS APPOINTMENT_SPAN
+	USING rtree(ID, START_DATE, END_DATE);
+
+ INSERT OR REPLACE INTO APPOINTMENT_SPAN (ID, START_DATE, END_DATE)
+	SELECT A.ID, A.START_DATE,
+	MAX(IFNULL(C.END_DATE, A.START_DATE), A.START_DATE) + (A.END_DATE - A.START_DATE)
+		FROM APPOINTMENT AS A
+		LEFT JOIN CIRCLE AS C
+			ON A.CIRCLE_FK = C.ID;
+
+--APPOINTMENT
+ CREATE TRIGGER IF NOT EXISTS APPOINTMENT_SPAN_INSERT_TRIGGER
+	AFTER INSERT ON APPOINTMENT
+	FOR EACH ROW
+	BEGIN
+		INSERT OR REPLACE INTO APPOINTMENT_SPAN (ID, START_DATE, END_DATE)
+			VALUES (NEW.ID, NEW.START_DATE, MAX(IFNULL((SELECT END_DATE FROM CIRCLE
+			WHERE ID = NEW.CIRCLE_FK), NEW.START_DATE), NEW.START_DATE)
+			+ (NEW.END_DATE - NEW.START_DATE)); END;
+
+ CREATE TRIGGER IF NOT EXISTS APPOINTMENT_SPAN_UPDATE_TRIGGER
+	AFTER UPDATE OF START_DATE, END_DATE, CIRCLE_FK ON APPOINTMENT
+	FOR EACH ROW
+	BEGIN
+		INSERT OR REPLACE INTO APPOINTMENT_SPAN (ID, START_DATE, END_DATE)
+			VALUES (NEW.ID, NEW.START_DATE, MAX(IFNULL((SELECT END_DATE FROM CIRCLE
+			WHERE ID = NEW.CIRCLE_FK), NEW.START_DATE), NEW.START_DATE)
+			+ (NEW.END_DATE - NEW.START_DATE)); END;
+
+ CREATE TRIGGER IF NOT EXISTS APPOINTMENT_SPAN_DELETE_TRIGGER
+	AFTER DELETE ON APPOINTMENT
+	FOR EACH ROW
+	BEGIN
+		DELETE FROM APPOINTMENT_SPAN
+			WHERE ID = OLD.ID; END;
+
+--CIRCLE
+ CREATE TRIGGER IF NOT EXISTS CIRCLE_SPAN_UPDATE_TRIGGER
+	AFTER UPDATE OF END_DATE ON CIRCLE
+	FOR EACH ROW
+	BEGIN
+		INSERT OR REPLACE INTO APPOINTMENT_SPAN (ID, START_DATE, END_DATE)
+			SELECT ID, START_DATE, MAX(IFNULL(NEW.END_DATE, START_DATE), START_DATE)
+			+ (END_DATE - START_DATE)
+				FROM APPOINTMENT
+				WHERE CIRCLE_FK = NEW.ID; END;
@@ -0,0 +1,34 @@
+--APP_STATE
+ CREATE TABLE IF NOT EXISTS APP_STATE(
+	NAME TEXT PRIMARY KEY,
+	VALUE INTEGER);
+
+--NEXT_ALARM
+ CREATE TABLE IF NOT EXISTS NEXT_ALARM(
+	APPOINTMENT_FK INTEGER NOT NULL REFERENCES APPOINTMENT(ID),
+	PERIOD_FK INTEGER NOT NULL REFERENCES PERIOD(ID),
+	START_DATE INTEGER NOT NULL,
+	DUE_DATE INTEGER NOT NULL,
+	PRIMARY KEY (APPOINTMENT_FK, PERIOD_FK));
+
+ CREATE INDEX IF NOT EXISTS NEXT_ALARM_DUE_DATE_INDEX
+	ON NEXT_ALARM(DUE_DATE);
+
+ CREATE TRIGGER IF NOT EXISTS APPOINTMENT_NEXT_ALARM_DELETE_TRIGGER
+	AFTER DELETE ON APPOINTMENT
+	FOR EACH ROW
+	BEGIN
+		DELETE FROM NEXT_ALARM
+			WHERE APPOINTMENT_FK = OLD.ID; END;
+
+ CREATE TRIGGER IF NOT EXISTS PRIORITY_PERIOD_NEXT_ALARM_DELETE_TRIGGER
+	AFTER DELETE ON PRIORITY_PERIOD
+	FOR EACH ROW
+	BEGIN
+		DELETE FROM NEXT_ALARM
+			WHERE PERIOD_FK = OLD.PERIOD_FK
+			AND APPOINTMENT_FK IN (SELECT AAG.APPOINTMENT_FK
+				FROM APPOINTMENT_APPOINTMENT_GROUP AS AAG
+				JOIN APPOINTMENT_GROUP AS AG
+					ON AAG.APPOINTMENT_GROUP_FK = AG.ID
+				WHERE AG.PRIORITY_FK = OLD.PRIORITY_FK); END;
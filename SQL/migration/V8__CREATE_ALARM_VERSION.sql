@@ -0,0 +1,18 @@
+--APP_STATE
+ INSERT OR IGNORE INTO APP_STATE (NAME, VALUE)
+	VALUES ('NEXT_ALARM_VERSION', 0);
+
+--NEXT_ALARM
+ CREATE TRIGGER IF NOT EXISTS NEXT_ALARM_VERSION_INSERT_TRIGGER
+	AFTER INSERT ON NEXT_ALARM
+	FOR EACH ROW
+	BEGIN
+		UPDATE APP_STATE SET VALUE = VALUE + 1
+			WHERE NAME = 'NEXT_ALARM_VERSION'; END;
+
+ CREATE TRIGGER IF NOT EXISTS NEXT_ALARM_VERSION_DELETE_TRIGGER
+	AFTER DELETE ON NEXT_ALARM
+	FOR EACH ROW
+	BEGIN
+		UPDATE APP_STATE SET VALUE = VALUE + 1
+			WHERE NAME = 'NEXT_ALARM_VERSION'; END;
@@ -0,0 +1,90 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Static Class, that compares the lookup of the series of random ranges
+ * through the B-tree index on their start with the lookup through the R*Tree
+ * of their spans, as {@link DatabaseController#getSeriesBetween(long, long)
+ * getSeriesBetween} does depending on {@code personalOrganizer.spanIndex}.
+ * Both queries have to return the same series for every range.<br/>
+ * It runs against the database in the working directory, which should hold
+ * a few hundred thousand series to show the difference:<pre>
+ * java -cp bin:lib/* database.SpanIndexBenchmark [ranges]</pre>
+ * @author Mario Schäper
+ */
+public abstract class SpanIndexBenchmark {
+	private static final long MILLIS_PER_DAY = 86_400_000L;
+	private static final int ROUNDS = 5;
+
+	public static void main(String...args) throws SQLException {
+		final int ranges = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+		final long[] starts = new long[ranges];
+		final long[] ends = new long[ranges];
+		final Random random = new Random(5);
+		final long now = System.currentTimeMillis();
+		for (int i = 0; i < ranges; i++) {
+			starts[i] = now + (long)((random.nextDouble() - 0.5) * 4 * 365 * MILLIS_PER_DAY);
+			ends[i] = starts[i] + (long)(random.nextDouble()
+					* (random.nextBoolean() ? 1 : 400) * MILLIS_PER_DAY);
+		}
+		for (int i = 0; i < ROUNDS; i++) {
+			final List<List<Integer>> btree = SpanIndexBenchmark.measure("B-tree",
+					DatabaseController.SELECT_SERIES_BETWEEN, 2, starts, ends);
+			final List<List<Integer>> rtree = SpanIndexBenchmark.measure("R*Tree",
+					DatabaseController.SELECT_SERIES_BETWEEN_SPAN, 4, starts, ends);
+			if (!btree.equals(rtree)) {
+				throw new IllegalStateException("The queries returned different series");
+			}
+		}
+		ConnectionManager.close();
+	}
+
+	/**
+	 * Runs and times the query for every range and prints the time per range.
+	 * @param name the name of the measurement
+	 * @param query the query, whose parameters alternate between the end
+	 * 		and the start of the range
+	 * @param parameters the amount of parameters of the query
+	 * @param starts the inclusive starts of the ranges in milliseconds
+	 * @param ends the exclusive ends of the ranges in milliseconds
+	 * @return the IDs of the appointments of every range in their order
+	 * @throws SQLException if a query fails
+	 */
+	private static List<List<Integer>> measure(final String name, final String query,
+			final int parameters, final long[] starts, final long[] ends)
+			throws SQLException {
+		final List<List<Integer>> ids = new ArrayList<>(starts.length);
+		long rows = 0;
+		final long start = System.nanoTime();
+		for (int i = 0; i < starts.length; i++) {
+			final long rangeStart = starts[i];
+			final long rangeEnd = ends[i];
+			ids.add(ConnectionManager.read(connection -> {
+				final PreparedStatement statement =
+						StatementRegistry.prepare(connection, query);
+				for (int j = 1; j <= parameters; j++) {
+					statement.setLong(j, j % 2 == 1 ? rangeEnd : rangeStart);
+				}
+				final List<Integer> range = new ArrayList<>();
+				try (final ResultSet result = statement.executeQuery()) {
+					while (result.next()) {
+						range.add(result.getInt("APPOINTMENT_ID"));
+					}
+				}
+				range.sort(null);
+				return range;
+			}));
+			rows += ids.get(i).size();
+		}
+		final long nanos = System.nanoTime() - start;
+		System.out.printf("%-8s %8.2f ms/range %8.1f series/range%n", name,
+				nanos / 1e6 / starts.length, (double)rows / starts.length);
+		return ids;
+	}
+}
@@ -0,0 +1,79 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Static Class, that compares the lookup of a Category by its ID through a
+ * query, that is compiled on every call, with the same lookup through the
+ * cached {@link java.sql.PreparedStatement PreparedStatement} of the
+ * {@link StatementRegistry StatementRegistry}.<br/>
+ * It runs against the database in the working directory:<pre>
+ * java -cp bin:lib/* database.StatementBenchmark [lookups]</pre>
+ * @author Mario Schäper
+ */
+public abstract class StatementBenchmark {
+	private static final String SELECT_CATEGORY =
+			"SELECT NAME, DESCRIPTION FROM CATEGORY WHERE ID = ?;";
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Function, that looks up the Category with the given ID.
+	 */
+	@FunctionalInterface
+	private interface Lookup {
+		void run(int id) throws SQLException;
+	}
+
+	public static void main(String...args) throws SQLException {
+		final int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		final int categories = ConnectionManager.read(connection -> {
+			try (final Statement statement = connection.createStatement();
+					final ResultSet result = statement.executeQuery(
+							"SELECT MAX(ID) FROM CATEGORY;")) {
+				return result.next() ? Math.max(1, result.getInt(1)) : 1;
+			}
+		});
+		for (int i = 0; i < ROUNDS; i++) {
+			StatementBenchmark.measure("compiled per call", lookups, categories, id ->
+					ConnectionManager.read(connection -> {
+						try (final Statement statement = connection.createStatement();
+								final ResultSet result = statement.executeQuery(
+										"SELECT NAME, DESCRIPTION FROM CATEGORY WHERE ID = "
+										+ id + ";")) {
+							return result.next() ? result.getString(1) : null;
+						}
+					}));
+			StatementBenchmark.measure("cached", lookups, categories, id ->
+					ConnectionManager.read(connection -> {
+						final PreparedStatement statement =
+								StatementRegistry.prepare(connection, SELECT_CATEGORY);
+						statement.setInt(1, id);
+						try (final ResultSet result = statement.executeQuery()) {
+							return result.next() ? result.getString(1) : null;
+						}
+					}));
+		}
+		ConnectionManager.close();
+	}
+
+	/**
+	 * Runs and times the lookups.
+	 * @param name the name of the measurement
+	 * @param lookups the amount of lookups
+	 * @param categories the highest ID of a Category
+	 * @param lookup the lookup
+	 * @throws SQLException if a lookup fails
+	 */
+	private static void measure(final String name, final int lookups,
+			final int categories, final Lookup lookup) throws SQLException {
+		final long start = System.nanoTime();
+		for (int i = 0; i < lookups; i++) {
+			lookup.run(i % categories + 1);
+		}
+		final long nanos = System.nanoTime() - start;
+		System.out.printf("%-18s %8.2f us/lookup%n", name, nanos / 1000.0 / lookups);
+	}
+}
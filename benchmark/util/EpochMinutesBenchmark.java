@@ -0,0 +1,78 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Static Class, that compares the allocations and the time of stepping through
+ * the occurrences of a repetition and reading their fields with
+ * {@link java.util.GregorianCalendar GregorianCalendars}, as the appointments
+ * used to, with the same steps on {@link EpochMinutes EpochMinutes}.<br/>
+ * The allocations are read from the HotSpot ThreadMXBean:<pre>
+ * java -cp bin util.EpochMinutesBenchmark [occurrences]</pre>
+ * @author Mario Schäper
+ */
+public abstract class EpochMinutesBenchmark {
+	private static final Duration REPETITION = new Duration(1, 7, 2, 30);
+	private static final int ROUNDS = 5;
+	private static long sink;
+
+	public static void main(String...args) {
+		final int occurrences = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		final GregorianCalendar first = new GregorianCalendar(2020, Calendar.JANUARY, 31, 8, 0);
+		final long firstMinutes = EpochMinutes.of(first);
+		for (int i = 0; i < ROUNDS; i++) {
+			EpochMinutesBenchmark.measure("GregorianCalendar", occurrences, n -> {
+				GregorianCalendar calendar = first;
+				long checksum = 0;
+				for (long j = 0; j < n; j++) {
+					// the former Duration.add and Appointment getters
+					final GregorianCalendar next = (GregorianCalendar)calendar.clone();
+					next.add(Calendar.MONTH, REPETITION.getMonths());
+					next.add(Calendar.DAY_OF_MONTH, REPETITION.getDays());
+					next.add(Calendar.HOUR_OF_DAY, REPETITION.getHours());
+					next.add(Calendar.MINUTE, REPETITION.getMinutes());
+					calendar = next;
+					checksum += calendar.get(Calendar.DAY_OF_MONTH)
+							+ calendar.get(Calendar.HOUR_OF_DAY)
+							+ calendar.get(Calendar.MINUTE);
+				}
+				return checksum;
+			});
+			EpochMinutesBenchmark.measure("EpochMinutes", occurrences, n -> {
+				long minutes = firstMinutes;
+				long checksum = 0;
+				for (long j = 0; j < n; j++) {
+					minutes = Duration.add(minutes, REPETITION);
+					checksum += EpochMinutes.getDayOfMonth(minutes)
+							+ EpochMinutes.getHour(minutes)
+							+ EpochMinutes.getMinute(minutes);
+				}
+				return checksum;
+			});
+		}
+		System.out.println("checksum " + sink);
+	}
+
+	/**
+	 * Runs the steps and prints their allocations and time per occurrence.
+	 * @param name the name of the measurement
+	 * @param occurrences the amount of occurrences to step through
+	 * @param steps steps through the given amount of occurrences
+	 */
+	private static void measure(final String name, final int occurrences,
+			final LongUnaryOperator steps) {
+		final com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		final long thread = Thread.currentThread().getId();
+		final long bytes = threads.getThreadAllocatedBytes(thread);
+		final long start = System.nanoTime();
+		sink += steps.applyAsLong(occurrences);
+		final long nanos = System.nanoTime() - start;
+		final long allocated = threads.getThreadAllocatedBytes(thread) - bytes;
+		System.out.printf("%-18s %8.1f bytes/occurrence %8.1f ns/occurrence%n", name,
+				(double)allocated / occurrences, (double)nanos / occurrences);
+	}
+}
@@ -1,9 +1,15 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.Priority;
+import java.text.SimpleDateFormat;
 import java.util.GregorianCalendar;
+import database.appointment.Alarm;
+import database.appointment.MissedAlarms;
+import alarms.AlarmListener;
+import alarms.AlarmScheduler;
 import util.Translator;
 import menus.*;
 import views.*;
@@ -13,6 +19,7 @@ import windows.ManageCategoriesWindow;
 import windows.ManagePrioritiesWindow;
 import windows.NewAppointmentWindow;
 import windows.NodeInitializer;
+import windows.OptionsDialog;
 import windows.SettingsWindow;
 import windows.WindowController;
 
@@ -42,6 +49,59 @@ public class PersonalOrganizer extends Application implements NodeInitializer {
 				0.75*Screen.getPrimary().getBounds().getWidth(),
 				0.60*Screen.getPrimary().getBounds().getHeight()));
 		this.stage.show();
+
+		AlarmScheduler.addListener(new AlarmListener() {
+			@Override
+			public void alarm(Alarm alarm) {
+				Platform.runLater(() -> PersonalOrganizer.this.showAlarm(alarm));
+			}
+
+			@Override
+			public void missed(MissedAlarms missed) {
+				Platform.runLater(() -> PersonalOrganizer.this.showMissedAlarms(missed));
+			}
+		});
+		AlarmScheduler.start();
+	}
+
+	@Override
+	public void stop() throws Exception {
+		AlarmScheduler.stop();
+	}
+
+	/**
+	 * Shows a due alarm to the User.
+	 * @param alarm the alarm
+	 */
+	private void showAlarm(Alarm alarm) {
+		SimpleDateFormat format = new SimpleDateFormat("dd.MM.yyyy HH:mm");
+		StringBuilder message = new StringBuilder(alarm.getSubject())
+				.append("\n").append(format.format(alarm.getStartDate().getTime()))
+				.append(" - ").append(format.format(alarm.getEndDate().getTime()));
+		if (alarm.getDescription() != null && !alarm.getDescription().isEmpty()) {
+			message.append("\n\n").append(alarm.getDescription());
+		}
+		OptionsDialog.showMessage(Translator.translate("alarm.title"), message.toString());
+	}
+
+	/**
+	 * Shows the alarms, that have been due while the organizer was closed,
+	 * in a single message to the User.
+	 * @param missed the missed alarms
+	 */
+	private void showMissedAlarms(MissedAlarms missed) {
+		SimpleDateFormat format = new SimpleDateFormat("dd.MM.yyyy HH:mm");
+		StringBuilder message = new StringBuilder();
+		for (Alarm alarm : missed.getAlarms()) {
+			message.append(format.format(alarm.getStartDate().getTime()))
+					.append("  ").append(alarm.getSubject()).append("\n");
+		}
+		if (missed.getCount() > missed.getAlarms().size()) {
+			message.append("\n").append(missed.getCount() - missed.getAlarms().size())
+					.append(" ").append(Translator.translate("alarm.more"));
+		}
+		OptionsDialog.showMessage(Translator.translate("alarm.missed")
+				+ " (" + missed.getCount() + ")", message.toString().trim());
 	}
 
 	/**
@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import alarms.AlarmListener;
+import alarms.AlarmScheduler;
+import database.appointment.Alarm;
+import database.appointment.MissedAlarms;
+import logging.LoggingController;
+
+/**
+ * Static Main Class, that raises the reminders of the Personal Organizer in
+ * the background without JavaFX, e.g. when started at login.<br/>
+ * Only the database and the {@link AlarmScheduler AlarmScheduler} are run:
+ * Dialogs are replaced by log messages and neither the series nor the
+ * occurrences are kept in memory, so a small heap suffices:<pre>
+ * java -Xmx24m -Xss256k -XX:+UseSerialGC PersonalOrganizerDaemon</pre>
+ * Every alarm is logged and, if the system property
+ * {@code personalOrganizer.alarmCommand} is set, passed to that command with
+ * its title and message as the last two arguments, e.g. {@code notify-send}.
+ * While the daemon runs, the alarms are not raised by the application.
+ * @author Mario Schäper
+ */
+public abstract class PersonalOrganizerDaemon {
+	private static final String ALARM_COMMAND =
+			System.getProperty("personalOrganizer.alarmCommand", "").trim();
+	private static final CountDownLatch STOPPED = new CountDownLatch(1);
+
+	public static void main(String...args) throws Exception {
+		PersonalOrganizerDaemon.setDefault("personalOrganizer.headless", "true");
+		PersonalOrganizerDaemon.setDefault("personalOrganizer.seriesIndex", "false");
+		PersonalOrganizerDaemon.setDefault("personalOrganizer.occurrenceTable", "false");
+
+		AlarmScheduler.addListener(new AlarmListener() {
+			@Override
+			public void alarm(Alarm alarm) {
+				PersonalOrganizerDaemon.notify(alarm.getSubject(),
+						PersonalOrganizerDaemon.describe(alarm));
+			}
+
+			@Override
+			public void missed(MissedAlarms missed) {
+				StringBuilder message = new StringBuilder();
+				for (Alarm alarm : missed.getAlarms()) {
+					message.append(alarm.getSubject()).append(": ")
+							.append(PersonalOrganizerDaemon.describe(alarm)).append("\n");
+				}
+				PersonalOrganizerDaemon.notify(
+						missed.getCount() + " missed reminders", message.toString().trim());
+			}
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			AlarmScheduler.stop();
+			STOPPED.countDown();
+		}, "PersonalOrganizerDaemon-shutdown"));
+		AlarmScheduler.start();
+		LoggingController.log(Level.INFO, "Reminder daemon started.");
+		STOPPED.await();
+	}
+
+	/**
+	 * Sets a system property, unless it has been given on the command line.
+	 * @param key the key of the property
+	 * @param value the value of the property
+	 */
+	private static void setDefault(String key, String value) {
+		if (System.getProperty(key) == null) {
+			System.setProperty(key, value);
+		}
+	}
+
+	/**
+	 * @param alarm the alarm
+	 * @return the time and description of the occurrence of the alarm
+	 */
+	private static String describe(Alarm alarm) {
+		SimpleDateFormat format = new SimpleDateFormat("dd.MM.yyyy HH:mm");
+		String message = format.format(alarm.getStartDate().getTime())
+				+ " - " + format.format(alarm.getEndDate().getTime());
+		if (alarm.getDescription() != null && !alarm.getDescription().isEmpty()) {
+			message += "\n" + alarm.getDescription();
+		}
+		return message;
+	}
+
+	/**
+	 * Logs a reminder and passes it to the alarm command, if there is one.
+	 * @param title the title of the reminder
+	 * @param message the message of the reminder
+	 */
+	private static void notify(String title, String message) {
+		LoggingController.log(Level.INFO, title + ": " + message);
+		if (ALARM_COMMAND.isEmpty()) {
+			return;
+		}
+		List<String> command = new ArrayList<>(Arrays.asList(ALARM_COMMAND.split("\\s+")));
+		command.add(title);
+		command.add(message);
+		try {
+			new ProcessBuilder(command).inheritIO().start();
+		} catch (IOException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to run the alarm command: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package alarms;
+
+import database.appointment.Alarm;
+import database.appointment.MissedAlarms;
+
+/**
+ * Listener, that is notified by the {@link AlarmScheduler AlarmScheduler}
+ * once an {@link Alarm Alarm} is due. It is called on the Thread of the
+ * scheduler and should hand longer work over to another Thread.
+ * @author Mario Schäper
+ */
+@FunctionalInterface
+public interface AlarmListener {
+
+	/**
+	 * Called once the alarm is due.
+	 * @param alarm the alarm
+	 */
+	void alarm(Alarm alarm);
+
+	/**
+	 * Called once on start with the alarms, that have been due while the
+	 * scheduler was not running.
+	 * @param missed the missed alarms
+	 */
+	default void missed(final MissedAlarms missed) {
+	}
+}
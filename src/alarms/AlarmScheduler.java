@@ -0,0 +1,423 @@
+package alarms;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import database.DatabaseController;
+import database.SeriesListener;
+import database.appointment.Alarm;
+import database.appointment.MissedAlarms;
+import database.appointment.Series;
+import logging.LoggingController;
+import util.EpochMinutes;
+
+/**
+ * Static Class, that raises the {@link Alarm Alarms} of the Priorities for the
+ * upcoming occurrences of all stored {@link Series Series}.<br/>
+ * The next alarm of every appointment and alarm of its Priority is stored by
+ * the {@link DatabaseController DatabaseController}. Only the earliest
+ * {@value #PAGE_SIZE} of them are loaded into a {@link TimerWheel TimerWheel}
+ * with a tick of one minute, that is owned by a single Thread, and the
+ * following ones are paged in, once most of them have been raised. A raised
+ * alarm is replaced by the one of the following occurrence. Changes of the
+ * series are handed to the Thread as tasks: added series only load their own
+ * alarms, removed ones cancel theirs in constant time.<br/>
+ * The time up to which alarms have been raised is stored every minute and
+ * on stop. On the next start the alarms missed since then, but at most
+ * within the last {@value #MAX_REPLAY_DAYS} days, are replayed page by page
+ * and passed to the listeners as a single batch.<br/>
+ * Only one process raises the alarms of a database: the scheduler holds a
+ * lock on a file beside it and waits, while another process holds it.
+ * Changes made by the other processes are found by the version of the stored
+ * alarms, that is checked on every wake-up, and reload all alarms, while the
+ * changes of this process are only handed to the Thread. An alarm is only
+ * raised, if it is still stored.
+ * @author Mario Schäper
+ */
+public abstract class AlarmScheduler {
+	private static final int PAGE_SIZE = 1000;
+	private static final int REFILL_SIZE = PAGE_SIZE / 4;
+	private static final long MAX_WAIT_MILLIS = 60000;
+	private static final long MILLIS_PER_MINUTE = 60000;
+	private static final int MAX_REPLAY_DAYS = 31;
+	private static final int MAX_MISSED_ALARMS = 20;
+	private static final Path LOCK_FILE = Paths.get("alarms.lock");
+	private static final List<AlarmListener> LISTENERS = new CopyOnWriteArrayList<>();
+	private static final Queue<Runnable> TASKS = new ConcurrentLinkedQueue<>();
+	private static final SeriesListener CHANGES = new SeriesListener() {
+		@Override
+		public void seriesAdded(final List<Series> series) {
+			AlarmScheduler.submit(() -> AlarmScheduler.load(series));
+		}
+
+		@Override
+		public void groupRemoved(final int appointmentGroupId) {
+			AlarmScheduler.submit(() -> AlarmScheduler.cancelGroup(appointmentGroupId));
+		}
+
+		@Override
+		public void alarmsChanged(final int priorityId) {
+			AlarmScheduler.submit(AlarmScheduler::reset);
+		}
+	};
+	private static volatile boolean running;
+	private static volatile int pendingCount;
+	private static Thread thread;
+	// the following fields are confined to the Thread of the scheduler
+	private static TimerWheel<Alarm> wheel;
+	private static final Map<Alarm, TimerWheel.Timeout<Alarm>> PENDING = new HashMap<>();
+	private static final Map<Integer, Set<Alarm>> GROUPS = new HashMap<>();
+	/**
+	 * The due date in milliseconds, up to which all stored alarms are loaded.
+	 */
+	private static long loadedUntil;
+	private static long lastSeenStored;
+	private static FileChannel lockChannel;
+
+	/**
+	 * Starts the Thread of the scheduler, if it is not running yet.
+	 */
+	public static synchronized void start() {
+		if (thread != null) {
+			return;
+		}
+		running = true;
+		DatabaseController.addSeriesListener(CHANGES);
+		thread = new Thread(AlarmScheduler::run, "AlarmScheduler");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the Thread of the scheduler and waits for it to end.
+	 */
+	public static synchronized void stop() {
+		if (thread == null) {
+			return;
+		}
+		running = false;
+		DatabaseController.removeSeriesListener(CHANGES);
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+		TASKS.clear();
+	}
+
+	public static void addListener(final AlarmListener listener) {
+		LISTENERS.add(listener);
+	}
+
+	public static void removeListener(final AlarmListener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * @return the amount of alarms, that are scheduled but not yet due
+	 */
+	public static int getPendingCount() {
+		return pendingCount;
+	}
+
+	private static void run() {
+		if (!AlarmScheduler.acquireLock()) {
+			return;
+		}
+		wheel = new TimerWheel<>(AlarmScheduler.currentTick());
+		AlarmScheduler.build();
+		AlarmScheduler.replay();
+		AlarmScheduler.isChangedElsewhere();
+		AlarmScheduler.reset();
+		while (running) {
+			for (Runnable task = TASKS.poll(); task != null; task = TASKS.poll()) {
+				task.run();
+			}
+			if (AlarmScheduler.isChangedElsewhere()) {
+				AlarmScheduler.reset();
+			}
+			wheel.advance(AlarmScheduler.currentTick(), AlarmScheduler::fire);
+			if (System.currentTimeMillis() - lastSeenStored >= MAX_WAIT_MILLIS) {
+				AlarmScheduler.storeLastSeen();
+			}
+			if (wheel.size() < REFILL_SIZE && loadedUntil != Long.MAX_VALUE) {
+				AlarmScheduler.refill();
+			}
+			pendingCount = PENDING.size();
+			final long next = wheel.nextTick();
+			final long wait = next == Long.MAX_VALUE
+					? MAX_WAIT_MILLIS
+					: Math.min(MAX_WAIT_MILLIS,
+						next * MILLIS_PER_MINUTE - System.currentTimeMillis());
+			if (TASKS.isEmpty() && wait > 0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(wait));
+			}
+		}
+		AlarmScheduler.storeLastSeen();
+		wheel.clear();
+		PENDING.clear();
+		GROUPS.clear();
+		pendingCount = 0;
+		AlarmScheduler.releaseLock();
+	}
+
+	/**
+	 * Waits until this process holds the lock of the alarms or the scheduler
+	 * is stopped. Changes submitted meanwhile are dropped, as the alarms are
+	 * loaded anew once the lock is held. If the lock file cannot be used at
+	 * all, the alarms are raised without it.
+	 * @return whether the scheduler is still running
+	 */
+	private static boolean acquireLock() {
+		boolean logged = false;
+		while (running) {
+			try {
+				final FileChannel channel = FileChannel.open(LOCK_FILE,
+						StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				if (channel.tryLock() != null) {
+					lockChannel = channel;
+					return true;
+				}
+				channel.close();
+			} catch (final IOException e) {
+				LoggingController.log(Level.WARNING,
+						"Unable to lock the alarms: " + e.getMessage());
+				return true;
+			}
+			if (!logged) {
+				LoggingController.log(Level.FINE, "Alarms are raised by another process.");
+				logged = true;
+			}
+			TASKS.clear();
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MILLIS));
+		}
+		return false;
+	}
+
+	private static void releaseLock() {
+		if (lockChannel == null) {
+			return;
+		}
+		try {
+			lockChannel.close();
+		} catch (final IOException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to unlock the alarms: " + e.getMessage());
+		}
+		lockChannel = null;
+	}
+
+	private static void submit(final Runnable task) {
+		TASKS.add(task);
+		final Thread scheduler = thread;
+		if (scheduler != null) {
+			LockSupport.unpark(scheduler);
+		}
+	}
+
+	/**
+	 * Stores the next alarms, if they have never been stored.
+	 */
+	private static void build() {
+		try {
+			DatabaseController.buildNextAlarms(System.currentTimeMillis());
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to store the next alarms: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Advances the stored alarms, that have been due while the scheduler was
+	 * not running, and passes those missed since the last stored time to the
+	 * listeners. The alarms are advanced in pages, each of them counting its
+	 * missed alarms without creating more than a few of them.
+	 */
+	private static void replay() {
+		final long now = System.currentTimeMillis();
+		MissedAlarms missed = new MissedAlarms(new ArrayList<>(), 0);
+		try {
+			final Long lastSeen = DatabaseController.getAlarmsSeenUntil();
+			final long from = lastSeen != null
+					? Math.max(lastSeen, now - MAX_REPLAY_DAYS * EpochMinutes.MINUTES_PER_DAY
+						* MILLIS_PER_MINUTE)
+					: now;
+			for (MissedAlarms page = DatabaseController.replayAlarms(
+					from, now, PAGE_SIZE, MAX_MISSED_ALARMS);
+					page != null;
+					page = DatabaseController.replayAlarms(
+						from, now, PAGE_SIZE, MAX_MISSED_ALARMS)) {
+				missed = missed.merge(page, MAX_MISSED_ALARMS);
+			}
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to replay the missed alarms: " + e.getMessage());
+		}
+		if (missed.isEmpty()) {
+			return;
+		}
+		LoggingController.log(Level.FINE, "Missed " + missed.getCount() + " alarms.");
+		for (final AlarmListener listener : LISTENERS) {
+			try {
+				listener.missed(missed);
+			} catch (final RuntimeException e) {
+				LoggingController.log(Level.WARNING,
+						"Unable to raise the missed alarms: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return whether the stored alarms have been changed by another process,
+	 * 		false if it cannot be read
+	 */
+	private static boolean isChangedElsewhere() {
+		try {
+			return DatabaseController.haveNextAlarmsChangedElsewhere();
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to read the version of the alarms: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Drops all alarms and loads the first page of the stored alarms.
+	 */
+	private static void reset() {
+		wheel.clear();
+		PENDING.clear();
+		GROUPS.clear();
+		loadedUntil = Long.MIN_VALUE;
+		AlarmScheduler.refill();
+	}
+
+	/**
+	 * Stores the current time as the time, up to which alarms have been raised.
+	 */
+	private static void storeLastSeen() {
+		final long now = System.currentTimeMillis();
+		try {
+			DatabaseController.setAlarmsSeenUntil(now);
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to store the time of the last alarms: " + e.getMessage());
+		}
+		lastSeenStored = now;
+	}
+
+	/**
+	 * Loads the page of stored alarms, that follows the loaded ones.
+	 */
+	private static void refill() {
+		try {
+			final List<Alarm> alarms = DatabaseController.getNextAlarms(loadedUntil, PAGE_SIZE);
+			alarms.forEach(AlarmScheduler::schedule);
+			loadedUntil = alarms.size() < PAGE_SIZE
+					? Long.MAX_VALUE
+					: EpochMinutes.toMillis(alarms.get(alarms.size() - 1).getTime());
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to load the upcoming alarms: " + e.getMessage());
+		}
+		pendingCount = PENDING.size();
+	}
+
+	/**
+	 * Loads the stored alarms of the given series, that belong to the loaded pages.
+	 * @param series the series
+	 */
+	private static void load(final List<Series> series) {
+		try {
+			DatabaseController.getNextAlarms(series, loadedUntil)
+					.forEach(AlarmScheduler::schedule);
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to load the alarms of added series: " + e.getMessage());
+		}
+		pendingCount = PENDING.size();
+	}
+
+	private static void schedule(final Alarm alarm) {
+		if (PENDING.containsKey(alarm)) {
+			return;
+		}
+		final long tick = Math.floorDiv(
+				EpochMinutes.toMillis(alarm.getTime()), MILLIS_PER_MINUTE);
+		PENDING.put(alarm, wheel.schedule(tick, alarm));
+		GROUPS.computeIfAbsent(alarm.getSeries().getAppointmentGroupId(), e -> new HashSet<>())
+				.add(alarm);
+	}
+
+	private static void cancelGroup(final int appointmentGroupId) {
+		final Set<Alarm> alarms = GROUPS.remove(appointmentGroupId);
+		if (alarms != null) {
+			for (final Alarm alarm : alarms) {
+				wheel.cancel(PENDING.remove(alarm));
+			}
+		}
+		pendingCount = PENDING.size();
+	}
+
+	private static void fire(final Alarm alarm) {
+		PENDING.remove(alarm);
+		final Set<Alarm> alarms = GROUPS.get(alarm.getSeries().getAppointmentGroupId());
+		if (alarms != null) {
+			alarms.remove(alarm);
+			if (alarms.isEmpty()) {
+				GROUPS.remove(alarm.getSeries().getAppointmentGroupId());
+			}
+		}
+		boolean stored = true;
+		try {
+			stored = DatabaseController.isNextAlarm(alarm);
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to confirm the alarm " + alarm + ": " + e.getMessage());
+		}
+		if (!stored) {
+			return;
+		}
+		for (final AlarmListener listener : LISTENERS) {
+			try {
+				listener.alarm(alarm);
+			} catch (final RuntimeException e) {
+				LoggingController.log(Level.WARNING,
+						"Unable to raise the alarm " + alarm + ": " + e.getMessage());
+			}
+		}
+		try {
+			final Alarm next = DatabaseController.advanceAlarm(alarm, System.currentTimeMillis());
+			if (next != null && EpochMinutes.toMillis(next.getTime()) <= loadedUntil) {
+				AlarmScheduler.schedule(next);
+			}
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to store the next alarm after " + alarm + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the current minute since the epoch in UTC, that is a tick of the wheel
+	 */
+	private static long currentTick() {
+		return Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_MINUTE);
+	}
+}
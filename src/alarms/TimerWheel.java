@@ -0,0 +1,294 @@
+package alarms;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel, that holds a large amount of timeouts with
+ * constant time for scheduling and cancelling them.<br/>
+ * Each of the {@value #LEVELS} levels has {@value #SLOTS} slots, the slots of
+ * the lowest level span a single tick and each higher level spans
+ * {@value #SLOTS} times the ticks of the one below. A timeout is placed into
+ * the level of the highest digit, in which its deadline differs from the
+ * current tick, and is cascaded into the lower levels once the current tick
+ * reaches its slot. Every slot is an intrusive doubly linked list and the
+ * occupied slots of a level are kept as the bits of a {@code long}, so that
+ * empty stretches of time are skipped without visiting a single slot.<br/>
+ * Instances are not thread-safe and are meant to be confined to a single
+ * Thread.
+ * @param <T> the type of the values of the timeouts
+ * @author Mario Schäper
+ */
+final class TimerWheel<T> {
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int LEVELS = 4;
+	private static final int OVERFLOW = LEVELS;
+	private static final int EXPIRED = LEVELS + 1;
+	private final Bucket<T>[][] buckets;
+	private final Bucket<T> overflow = new Bucket<>(OVERFLOW, 0);
+	private final Bucket<T> expired = new Bucket<>(EXPIRED, 0);
+	private final long[] occupied = new long[LEVELS];
+	private long now;
+	private int size;
+
+	/**
+	 * Timeout within a {@link TimerWheel TimerWheel}, that can be cancelled
+	 * as long as it is pending.
+	 * @param <T> the type of the value
+	 */
+	static final class Timeout<T> {
+		private final long deadline;
+		private final T value;
+		private Bucket<T> bucket;
+		private Timeout<T> previous;
+		private Timeout<T> next;
+
+		private Timeout(final long deadline, final T value) {
+			this.deadline = deadline;
+			this.value = value;
+		}
+
+		long getDeadline() {
+			return this.deadline;
+		}
+
+		T getValue() {
+			return this.value;
+		}
+
+		/**
+		 * @return whether the timeout has neither expired nor been cancelled
+		 */
+		boolean isPending() {
+			return this.bucket != null;
+		}
+	}
+
+	/**
+	 * Slot of the wheel, that links its timeouts.
+	 */
+	private static final class Bucket<T> {
+		private final int level;
+		private final int slot;
+		private Timeout<T> head;
+
+		private Bucket(final int level, final int slot) {
+			this.level = level;
+			this.slot = slot;
+		}
+	}
+
+	/**
+	 * Invokes an instance of the class {@link TimerWheel TimerWheel}.
+	 * @param now the current tick
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	TimerWheel(final long now) {
+		this.now = now;
+		this.buckets = new Bucket[LEVELS][SLOTS];
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				this.buckets[level][slot] = new Bucket<>(level, slot);
+			}
+		}
+	}
+
+	/**
+	 * @return the current tick
+	 */
+	long getNow() {
+		return this.now;
+	}
+
+	/**
+	 * @return the amount of pending timeouts
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Schedules a timeout. Timeouts, whose deadline is not after the current
+	 * tick, expire with the next {@link #advance(long, Consumer) advance}.
+	 * @param deadline the tick at which the timeout expires
+	 * @param value the value of the timeout
+	 * @return the timeout
+	 */
+	Timeout<T> schedule(final long deadline, final T value) {
+		final Timeout<T> timeout = new Timeout<>(deadline, value);
+		this.place(timeout);
+		this.size++;
+		return timeout;
+	}
+
+	/**
+	 * Cancels a pending timeout.
+	 * @param timeout the timeout
+	 * @return whether the timeout has been pending
+	 */
+	boolean cancel(final Timeout<T> timeout) {
+		if (!timeout.isPending()) {
+			return false;
+		}
+		this.unlink(timeout);
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Cancels all pending timeouts.
+	 */
+	void clear() {
+		for (final Bucket<T>[] level : this.buckets) {
+			for (final Bucket<T> bucket : level) {
+				this.clear(bucket);
+			}
+		}
+		this.clear(this.overflow);
+		this.clear(this.expired);
+		this.size = 0;
+	}
+
+	/**
+	 * Advances the wheel to the given tick and passes the values of all
+	 * timeouts expiring up to it to the consumer, tick by tick. The consumer
+	 * may schedule and cancel timeouts.
+	 * @param tick the new current tick
+	 * @param consumer the consumer of the expired values
+	 */
+	void advance(final long tick, final Consumer<? super T> consumer) {
+		this.expire(this.expired, consumer);
+		for (long next = this.nextTick(); next <= tick; next = this.nextTick()) {
+			this.now = next;
+			for (int level = LEVELS - 1; level > 0; level--) {
+				if ((next & (1L << level * SLOT_BITS) - 1) == 0) {
+					this.cascade(this.buckets[level][TimerWheel.digit(next, level)]);
+				}
+			}
+			if ((next & (1L << LEVELS * SLOT_BITS) - 1) == 0) {
+				this.cascade(this.overflow);
+			}
+			this.expire(this.buckets[0][TimerWheel.digit(next, 0)], consumer);
+			this.expire(this.expired, consumer);
+		}
+		this.now = Math.max(this.now, tick);
+	}
+
+	/**
+	 * Returns the earliest tick at which a timeout may expire. The tick is
+	 * exact, unless a timeout lies beyond the range of the highest level.
+	 * @return the tick or {@link Long#MAX_VALUE}, if there are no timeouts
+	 */
+	long nextTick() {
+		if (this.expired.head != null) {
+			return this.now;
+		}
+		long next = Long.MAX_VALUE;
+		for (int level = 0; level < LEVELS; level++) {
+			final int shift = level * SLOT_BITS;
+			final int digit = TimerWheel.digit(this.now, level);
+			final long later = this.occupied[level] & -2L << digit;
+			if (later != 0) {
+				final long base = this.now >> shift + SLOT_BITS << shift + SLOT_BITS;
+				next = Math.min(next, base | (long)Long.numberOfTrailingZeros(later) << shift);
+			}
+		}
+		if (this.overflow.head != null) {
+			final int shift = LEVELS * SLOT_BITS;
+			next = Math.min(next, (this.now >> shift) + 1 << shift);
+		}
+		return next;
+	}
+
+	/**
+	 * Links a timeout into the bucket, that matches its deadline relative to
+	 * the current tick.
+	 * @param timeout the timeout
+	 */
+	private void place(final Timeout<T> timeout) {
+		if (timeout.deadline <= this.now) {
+			this.link(timeout, this.expired);
+			return;
+		}
+		final int level = (63 - Long.numberOfLeadingZeros(timeout.deadline ^ this.now))
+				/ SLOT_BITS;
+		if (level >= LEVELS) {
+			this.link(timeout, this.overflow);
+			return;
+		}
+		final int slot = TimerWheel.digit(timeout.deadline, level);
+		this.link(timeout, this.buckets[level][slot]);
+		this.occupied[level] |= 1L << slot;
+	}
+
+	/**
+	 * Moves the timeouts of a bucket into the buckets matching the current tick.
+	 * @param bucket the bucket
+	 */
+	private void cascade(final Bucket<T> bucket) {
+		Timeout<T> timeout = bucket.head;
+		while (timeout != null) {
+			final Timeout<T> next = timeout.next;
+			this.unlink(timeout);
+			this.place(timeout);
+			timeout = next;
+		}
+	}
+
+	/**
+	 * Removes the timeouts of a bucket and passes their values to the consumer.
+	 * @param bucket the bucket
+	 * @param consumer the consumer
+	 */
+	private void expire(final Bucket<T> bucket, final Consumer<? super T> consumer) {
+		while (bucket.head != null) {
+			final Timeout<T> timeout = bucket.head;
+			this.unlink(timeout);
+			this.size--;
+			consumer.accept(timeout.value);
+		}
+	}
+
+	private void clear(final Bucket<T> bucket) {
+		while (bucket.head != null) {
+			this.unlink(bucket.head);
+		}
+	}
+
+	private void link(final Timeout<T> timeout, final Bucket<T> bucket) {
+		timeout.bucket = bucket;
+		timeout.previous = null;
+		timeout.next = bucket.head;
+		if (bucket.head != null) {
+			bucket.head.previous = timeout;
+		}
+		bucket.head = timeout;
+	}
+
+	private void unlink(final Timeout<T> timeout) {
+		final Bucket<T> bucket = timeout.bucket;
+		if (timeout.previous != null) {
+			timeout.previous.next = timeout.next;
+		} else {
+			bucket.head = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.previous = timeout.previous;
+		}
+		if (bucket.head == null && bucket.level < LEVELS) {
+			this.occupied[bucket.level] &= ~(1L << bucket.slot);
+		}
+		timeout.bucket = null;
+		timeout.previous = null;
+		timeout.next = null;
+	}
+
+	/**
+	 * @param tick the tick
+	 * @param level the level
+	 * @return the slot of the tick within the level
+	 */
+	private static int digit(final long tick, final int level) {
+		return (int)(tick >> level * SLOT_BITS) & SLOTS - 1;
+	}
+}
@@ -0,0 +1,584 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import database.ConnectionManager.SQLFunction;
+import database.appointment.Alarm;
+import database.appointment.MissedAlarms;
+import database.appointment.Recurrence;
+import database.appointment.RecurrenceCursor;
+import database.appointment.Series;
+import util.Duration;
+import util.EpochMinutes;
+
+/**
+ * Static Class, that keeps the next due {@link Alarm Alarm} of every pair of
+ * an appointment and an alarm of its Priority in the table NEXT_ALARM.<br/>
+ * The rows are kept up to date incrementally: added series insert their own
+ * rows, a changed Priority rewrites only the rows of its appointments and
+ * deleted appointments or alarms lose their rows by triggers. Once an alarm
+ * has been raised, its row is advanced to the following occurrence. Readers
+ * page through the rows by the index on their due date, so that only the
+ * earliest alarms are ever held in memory.<br/>
+ * Rows, that are still due in the past on the next start, hold the first
+ * alarm missed in between. As the due date of the alarms grows with the
+ * index of their occurrence, the missed alarms of a row are counted by the
+ * indices of its first missed and its next alarm, so replaying them takes
+ * the same time, however long the organizer has been closed.
+ * @author Mario Schäper
+ */
+abstract class AlarmTable {
+	private static final String BUILT_STATE = "NEXT_ALARM_BUILT";
+	private static final String LAST_SEEN_STATE = "LAST_SEEN";
+	/**
+	 * Counter of the rows, that have been inserted into or deleted from the
+	 * table, which is kept by triggers.
+	 */
+	private static final String VERSION_STATE = "NEXT_ALARM_VERSION";
+	/**
+	 * The least amount of minutes of a month, so that the start of an
+	 * occurrence can be bounded by the due date of its alarm.
+	 */
+	private static final long MIN_MINUTES_PER_MONTH = 28 * EpochMinutes.MINUTES_PER_DAY;
+	private static final String SELECT_STATE = "SELECT VALUE FROM APP_STATE WHERE NAME = ?;";
+	private static final String REPLACE_STATE =
+			"INSERT OR REPLACE INTO APP_STATE (NAME, VALUE) VALUES (?, ?);";
+	private static final String SELECT_ALARM_PERIODS =
+			"SELECT PP.PRIORITY_FK, P.ID, P.MINUTES, P.DAYS, P.MONTHS "
+			+ "FROM PRIORITY_PERIOD AS PP JOIN PERIOD AS P ON PP.PERIOD_FK = P.ID;";
+	private static final String SELECT_PRIORITY_ALARM_PERIODS =
+			"SELECT PP.PRIORITY_FK, P.ID, P.MINUTES, P.DAYS, P.MONTHS "
+			+ "FROM PRIORITY_PERIOD AS PP JOIN PERIOD AS P ON PP.PERIOD_FK = P.ID "
+			+ "WHERE PP.PRIORITY_FK = ?;";
+	private static final String SELECT_SERIES = "SELECT * FROM APPOINTMENTS_VIEW;";
+	private static final String SELECT_PRIORITY_SERIES =
+			"SELECT * FROM APPOINTMENTS_VIEW WHERE PRIORITY_FK = ?;";
+	private static final String REPLACE_ALARM = "INSERT OR REPLACE INTO NEXT_ALARM "
+			+ "(APPOINTMENT_FK, PERIOD_FK, START_DATE, DUE_DATE) VALUES (?, ?, ?, ?);";
+	private static final String UPDATE_ALARM = "UPDATE NEXT_ALARM "
+			+ "SET START_DATE = ?, DUE_DATE = ? "
+			+ "WHERE APPOINTMENT_FK = ? AND PERIOD_FK = ? AND START_DATE = ?;";
+	private static final String DELETE_ALARM = "DELETE FROM NEXT_ALARM "
+			+ "WHERE APPOINTMENT_FK = ? AND PERIOD_FK = ? AND START_DATE = ?;";
+	private static final String SELECT_ALARM = "SELECT 1 FROM NEXT_ALARM "
+			+ "WHERE APPOINTMENT_FK = ? AND PERIOD_FK = ? AND START_DATE = ?;";
+	private static final String DELETE_ALARMS = "DELETE FROM NEXT_ALARM;";
+	/**
+	 * Joins the rows with their alarm and series. The CROSS JOINs keep
+	 * NEXT_ALARM as the outer loop, so that its index on the due date is used.
+	 */
+	private static final String SELECT_ALARMS = "SELECT N.PERIOD_FK, "
+			+ "N.START_DATE AS ALARM_START, P.MINUTES AS ALARM_MINUTES, "
+			+ "P.DAYS AS ALARM_DAYS, P.MONTHS AS ALARM_MONTHS, V.* "
+			+ "FROM NEXT_ALARM AS N "
+			+ "CROSS JOIN PERIOD AS P ON N.PERIOD_FK = P.ID "
+			+ "CROSS JOIN APPOINTMENTS_VIEW AS V ON V.APPOINTMENT_ID = N.APPOINTMENT_FK ";
+	/**
+	 * Selects the first page of rows due after a time. The page ends with the
+	 * due date of its k-th row, so that rows due at the same time are never
+	 * split between two pages.
+	 */
+	private static final String SELECT_ALARMS_PAGE = SELECT_ALARMS
+			+ "WHERE N.DUE_DATE > ? AND N.DUE_DATE <= IFNULL((SELECT DUE_DATE "
+				+ "FROM NEXT_ALARM WHERE DUE_DATE > ? "
+				+ "ORDER BY DUE_DATE LIMIT 1 OFFSET ?), ?) "
+			+ "ORDER BY N.DUE_DATE;";
+	private static final String SELECT_ALARMS_OF_APPOINTMENTS = SELECT_ALARMS
+			+ "WHERE N.APPOINTMENT_FK BETWEEN ? AND ? AND N.DUE_DATE <= ?;";
+	private static final String SELECT_ALARMS_BEFORE = SELECT_ALARMS
+			+ "WHERE N.DUE_DATE < ? ORDER BY N.DUE_DATE LIMIT ?;";
+
+	/**
+	 * The version of the rows after the last change of this process, that
+	 * followed all changes of other processes known before, or the version
+	 * last read by {@link #isChangedElsewhere() isChangedElsewhere}.
+	 */
+	private static long knownVersion = Long.MIN_VALUE;
+
+	/**
+	 * Fills the table, if it has not been filled yet.
+	 * @param now the current time in milliseconds
+	 * @return the amount of stored alarms
+	 * @throws SQLException
+	 */
+	static int build(final long now) throws SQLException {
+		return AlarmTable.write(connection -> {
+			if (AlarmTable.isBuilt(connection)) {
+				return 0;
+			}
+			StatementRegistry.prepare(connection, DELETE_ALARMS).executeUpdate();
+			final int amount = AlarmTable.insert(connection,
+					AlarmTable.selectSeries(connection, SELECT_SERIES, null),
+					AlarmTable.getAlarmPeriods(connection, null), now);
+			AlarmTable.setState(connection, BUILT_STATE, now);
+			return amount;
+		});
+	}
+
+	/**
+	 * Advances the first page of rows, whose alarm is due before the minute of
+	 * the given time, to their next alarm due at or after it, and collects
+	 * the alarms missed in between.
+	 * @param from the time in milliseconds, before which alarms are skipped
+	 * 		without being collected
+	 * @param now the current time in milliseconds
+	 * @param amount the maximal amount of rows
+	 * @param limit the maximal amount of kept alarms
+	 * @return the missed alarms or null, if no row has been due
+	 * @throws SQLException
+	 */
+	static MissedAlarms replay(final long from, final long now, final int amount,
+			final int limit) throws SQLException {
+		return AlarmTable.write(connection -> {
+			// rows due within the current minute are not missed yet
+			final long nowMinute = EpochMinutes.ofMillis(now);
+			final PreparedStatement statement =
+					StatementRegistry.prepare(connection, SELECT_ALARMS_BEFORE);
+			statement.setLong(1, EpochMinutes.toMillis(nowMinute));
+			statement.setInt(2, amount);
+			final List<Alarm> stale = AlarmTable.toAlarms(statement);
+			if (stale.isEmpty()) {
+				return null;
+			}
+			final long fromMinute = EpochMinutes.ofMillis(from);
+			final List<Alarm> missed = new ArrayList<>();
+			long count = 0;
+			for (final Alarm alarm : stale) {
+				final Series series = alarm.getSeries();
+				final Alarm next = AlarmTable.nextAlarm(series, alarm.getPeriodId(),
+						alarm.getBefore(), Long.MIN_VALUE, nowMinute);
+				final Alarm first = alarm.getTime() >= fromMinute
+						? alarm
+						: AlarmTable.nextAlarm(series, alarm.getPeriodId(),
+							alarm.getBefore(), Long.MIN_VALUE, fromMinute);
+				if (first != null && first.getTime() < nowMinute) {
+					final Recurrence recurrence = series.getRecurrence();
+					final long firstIndex = recurrence.firstIndexStartingAfter(first.getStart() - 1);
+					final long nextIndex = next != null
+							? recurrence.firstIndexStartingAfter(next.getStart() - 1)
+							: recurrence.getOccurrenceCount();
+					count += nextIndex - firstIndex;
+					final RecurrenceCursor cursor = recurrence.cursor();
+					final int size = missed.size();
+					for (boolean valid = cursor.seek(firstIndex);
+							valid && cursor.getIndex() < nextIndex && missed.size() - size < limit;
+							valid = cursor.next()) {
+						missed.add(new Alarm(series, alarm.getPeriodId(),
+								cursor.getStart(), cursor.getEnd(), alarm.getBefore()));
+					}
+					if (missed.size() > limit) {
+						missed.sort(Comparator.comparingLong(Alarm::getTime));
+						missed.subList(limit, missed.size()).clear();
+					}
+				}
+				AlarmTable.advance(connection, alarm, next);
+			}
+			return new MissedAlarms(missed, count);
+		});
+	}
+
+	/**
+	 * @return the time in milliseconds, up to which alarms have been raised,
+	 * 		or null, if it has never been stored
+	 * @throws SQLException
+	 */
+	static Long getLastSeen() throws SQLException {
+		return ConnectionManager.read(connection -> AlarmTable.getState(connection, LAST_SEEN_STATE));
+	}
+
+	/**
+	 * @param lastSeen the time in milliseconds, up to which alarms have been raised
+	 * @throws SQLException
+	 */
+	static void setLastSeen(final long lastSeen) throws SQLException {
+		ConnectionManager.execute(connection -> {
+			AlarmTable.setState(connection, LAST_SEEN_STATE, lastSeen);
+		});
+	}
+
+	/**
+	 * Runs a transaction, that changes the rows of the table. If no other
+	 * process has changed them since the last known version, the version the
+	 * transaction leads to becomes the known one.
+	 * @param transaction the transaction
+	 * @return the result of the transaction
+	 * @throws SQLException if the transaction fails
+	 * @see ConnectionManager#write(SQLFunction)
+	 */
+	static <T> T write(final SQLFunction<T> transaction) throws SQLException {
+		// a nested transaction may still be rolled back by the enclosing one
+		final boolean nested = ConnectionManager.isWriting();
+		final long[] versions = new long[2];
+		final T result = ConnectionManager.write(connection -> {
+			versions[0] = AlarmTable.getVersion(connection);
+			final T value = transaction.apply(connection);
+			versions[1] = AlarmTable.getVersion(connection);
+			return value;
+		});
+		synchronized (AlarmTable.class) {
+			if (!nested && versions[0] == knownVersion) {
+				knownVersion = versions[1];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether another process has changed the rows of the table
+	 * since the last known version, which is the current one afterwards.
+	 * The first call always returns true.
+	 * @return whether the rows have been changed by another process
+	 * @throws SQLException
+	 */
+	static synchronized boolean isChangedElsewhere() throws SQLException {
+		final long version = ConnectionManager.read(AlarmTable::getVersion);
+		final boolean changed = version != knownVersion;
+		knownVersion = version;
+		return changed;
+	}
+
+	/**
+	 * @param alarm the alarm
+	 * @return whether the row of the alarm is still stored
+	 * @throws SQLException
+	 */
+	static boolean contains(final Alarm alarm) throws SQLException {
+		return ConnectionManager.read(connection -> {
+			final PreparedStatement statement = StatementRegistry.prepare(connection, SELECT_ALARM);
+			statement.setInt(1, alarm.getSeries().getAppointmentId());
+			statement.setInt(2, alarm.getPeriodId());
+			statement.setLong(3, EpochMinutes.toMillis(alarm.getStart()));
+			try (final ResultSet result = statement.executeQuery()) {
+				return result.next();
+			}
+		});
+	}
+
+	/**
+	 * Stores the next alarms of the given series, that are due at or after
+	 * the given time. Does nothing, if the table has not been filled yet.
+	 * @param connection the connection of the running transaction
+	 * @param series the series
+	 * @param now the current time in milliseconds
+	 * @return the amount of stored alarms
+	 * @throws SQLException
+	 */
+	static int insert(final Connection connection, final List<Series> series, final long now)
+			throws SQLException {
+		if (series.isEmpty() || !AlarmTable.isBuilt(connection)) {
+			return 0;
+		}
+		return AlarmTable.insert(connection, series,
+				AlarmTable.getAlarmPeriods(connection, null), now);
+	}
+
+	/**
+	 * Stores the next alarms of all appointments of a Priority for the given
+	 * alarms of it. Does nothing, if the table has not been filled yet. The
+	 * rows of removed alarms are deleted by a trigger on PRIORITY_PERIOD.
+	 * @param connection the connection of the running transaction
+	 * @param priorityId the ID of the Priority
+	 * @param periodIds the IDs of the Periods of the added alarms
+	 * @param now the current time in milliseconds
+	 * @return the amount of stored alarms
+	 * @throws SQLException
+	 */
+	static int insertPriority(final Connection connection, final int priorityId,
+			final Set<Integer> periodIds, final long now) throws SQLException {
+		if (periodIds.isEmpty() || !AlarmTable.isBuilt(connection)) {
+			return 0;
+		}
+		final Map<Integer, Map<Integer, Duration>> periods =
+				AlarmTable.getAlarmPeriods(connection, priorityId);
+		periods.values().forEach(alarms -> alarms.keySet().retainAll(periodIds));
+		if (periods.isEmpty()) {
+			return 0;
+		}
+		return AlarmTable.insert(connection,
+				AlarmTable.selectSeries(connection, SELECT_PRIORITY_SERIES, priorityId),
+				periods, now);
+	}
+
+	/**
+	 * Returns the alarms of the first page of rows, that are due after the
+	 * given time. The page holds the given amount of rows and all further
+	 * rows, that are due at the same time as the last one.
+	 * @param after the exclusive start of the page in milliseconds
+	 * @param amount the amount of rows
+	 * @return the alarms ordered by their due date
+	 * @throws SQLException
+	 */
+	static List<Alarm> getAlarms(final long after, final int amount) throws SQLException {
+		return ConnectionManager.read(connection -> {
+			final PreparedStatement statement =
+					StatementRegistry.prepare(connection, SELECT_ALARMS_PAGE);
+			statement.setLong(1, after);
+			statement.setLong(2, after);
+			statement.setInt(3, amount - 1);
+			statement.setLong(4, Long.MAX_VALUE);
+			return AlarmTable.toAlarms(statement);
+		});
+	}
+
+	/**
+	 * Returns the alarms of the Appointments within the given range of IDs,
+	 * that are due up to the given time.
+	 * @param firstId the first ID
+	 * @param lastId the last ID
+	 * @param until the inclusive end in milliseconds
+	 * @return the alarms
+	 * @throws SQLException
+	 */
+	static List<Alarm> getAlarms(final int firstId, final int lastId, final long until)
+			throws SQLException {
+		return ConnectionManager.read(connection -> {
+			final PreparedStatement statement =
+					StatementRegistry.prepare(connection, SELECT_ALARMS_OF_APPOINTMENTS);
+			statement.setInt(1, firstId);
+			statement.setInt(2, lastId);
+			statement.setLong(3, until);
+			return AlarmTable.toAlarms(statement);
+		});
+	}
+
+	/**
+	 * Advances the row of a raised alarm to the next alarm of the following
+	 * occurrences, that is due at or after the given time.
+	 * @param alarm the raised alarm
+	 * @param now the current time in milliseconds
+	 * @return the next alarm or null, if there is none or the row has been
+	 * 		changed in the meantime
+	 * @throws SQLException
+	 */
+	static Alarm advance(final Alarm alarm, final long now) throws SQLException {
+		final Alarm next = AlarmTable.nextAlarm(alarm.getSeries(), alarm.getPeriodId(),
+				alarm.getBefore(), alarm.getStart(), EpochMinutes.ofMillis(now));
+		return AlarmTable.write(connection ->
+				AlarmTable.advance(connection, alarm, next) ? next : null);
+	}
+
+	/**
+	 * Returns the first alarm of an occurrence starting after the given time,
+	 * that is due at or after the other given time. As the due date of an
+	 * alarm grows with the start of its occurrence, the occurrences starting
+	 * too early for the due date are skipped by a seek.
+	 * @param series the series
+	 * @param periodId the ID of the alarm Period
+	 * @param before the time between the alarm and the start of its occurrence
+	 * @param after the exclusive lower bound of the start in local minutes
+	 * @param notBefore the inclusive lower bound of the due date in local minutes
+	 * @return the alarm or null, if there is none
+	 */
+	static Alarm nextAlarm(final Series series, final int periodId, final Duration before,
+			final long after, final long notBefore) {
+		final Recurrence recurrence = series.getRecurrence();
+		final long earliestStart = notBefore + before.getRawMinutes()
+				+ before.getMonths() * MIN_MINUTES_PER_MONTH;
+		final RecurrenceCursor cursor = recurrence.cursor();
+		for (boolean valid = cursor.seek(recurrence.firstIndexStartingAfter(
+				Math.max(after, earliestStart - 1))); valid; valid = cursor.next()) {
+			final Alarm alarm =
+					new Alarm(series, periodId, cursor.getStart(), cursor.getEnd(), before);
+			if (alarm.getTime() >= notBefore) {
+				return alarm;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the next alarms of the given series for the alarms of their
+	 * Priorities.
+	 * @param connection the connection of the running transaction
+	 * @param series the series
+	 * @param periods the alarms of the Priorities by their ID and the ID of
+	 * 		their Period
+	 * @param now the current time in milliseconds
+	 * @return the amount of stored alarms
+	 * @throws SQLException
+	 */
+	private static int insert(final Connection connection, final List<Series> series,
+			final Map<Integer, Map<Integer, Duration>> periods, final long now)
+			throws SQLException {
+		final PreparedStatement statement = StatementRegistry.prepare(connection, REPLACE_ALARM);
+		final long notBefore = EpochMinutes.ofMillis(now);
+		int amount = 0;
+		for (final Series s : series) {
+			final Map<Integer, Duration> alarms = periods.get(s.getPriorityId());
+			if (alarms == null) {
+				continue;
+			}
+			for (final Map.Entry<Integer, Duration> period : alarms.entrySet()) {
+				final Alarm alarm = AlarmTable.nextAlarm(
+						s, period.getKey(), period.getValue(), Long.MIN_VALUE, notBefore);
+				if (alarm == null) {
+					continue;
+				}
+				statement.setInt(1, s.getAppointmentId());
+				statement.setInt(2, period.getKey());
+				statement.setLong(3, EpochMinutes.toMillis(alarm.getStart()));
+				statement.setLong(4, EpochMinutes.toMillis(alarm.getTime()));
+				statement.addBatch();
+				amount++;
+			}
+		}
+		if (amount > 0) {
+			statement.executeBatch();
+		}
+		return amount;
+	}
+
+	/**
+	 * Replaces the row of an alarm by the given next alarm or deletes it, if
+	 * there is none.
+	 * @param connection the connection of the running transaction
+	 * @param alarm the alarm
+	 * @param next the next alarm or null
+	 * @return whether the row has still belonged to the alarm
+	 * @throws SQLException
+	 */
+	private static boolean advance(final Connection connection, final Alarm alarm,
+			final Alarm next) throws SQLException {
+		final PreparedStatement statement;
+		int index = 1;
+		if (next != null) {
+			statement = StatementRegistry.prepare(connection, UPDATE_ALARM);
+			statement.setLong(index++, EpochMinutes.toMillis(next.getStart()));
+			statement.setLong(index++, EpochMinutes.toMillis(next.getTime()));
+		} else {
+			statement = StatementRegistry.prepare(connection, DELETE_ALARM);
+		}
+		statement.setInt(index++, alarm.getSeries().getAppointmentId());
+		statement.setInt(index++, alarm.getPeriodId());
+		statement.setLong(index, EpochMinutes.toMillis(alarm.getStart()));
+		return statement.executeUpdate() > 0;
+	}
+
+	/**
+	 * @param connection the connection to use
+	 * @return the counter of the rows, that have been inserted into or
+	 * 		deleted from the table
+	 * @throws SQLException
+	 */
+	private static long getVersion(final Connection connection) throws SQLException {
+		final Long version = AlarmTable.getState(connection, VERSION_STATE);
+		return version != null ? version : 0;
+	}
+
+	/**
+	 * @param connection the connection to use
+	 * @return whether the table has been filled
+	 * @throws SQLException
+	 */
+	private static boolean isBuilt(final Connection connection) throws SQLException {
+		return AlarmTable.getState(connection, BUILT_STATE) != null;
+	}
+
+	/**
+	 * @param connection the connection to use
+	 * @param name the name of the state
+	 * @return the value of the state or null, if it has not been stored
+	 * @throws SQLException
+	 */
+	private static Long getState(final Connection connection, final String name)
+			throws SQLException {
+		final PreparedStatement statement = StatementRegistry.prepare(connection, SELECT_STATE);
+		statement.setString(1, name);
+		try (final ResultSet result = statement.executeQuery()) {
+			return result.next() ? result.getLong("VALUE") : null;
+		}
+	}
+
+	/**
+	 * @param connection the connection of the running transaction
+	 * @param name the name of the state
+	 * @param value the value of the state
+	 * @throws SQLException
+	 */
+	private static void setState(final Connection connection, final String name,
+			final long value) throws SQLException {
+		final PreparedStatement statement = StatementRegistry.prepare(connection, REPLACE_STATE);
+		statement.setString(1, name);
+		statement.setLong(2, value);
+		statement.executeUpdate();
+	}
+
+	/**
+	 * Returns the alarms of the Priorities.
+	 * @param connection the connection to use
+	 * @param priorityId the ID of the only Priority to return or null for all
+	 * @return the alarms by the ID of their Priority and the ID of their Period
+	 * @throws SQLException
+	 */
+	private static Map<Integer, Map<Integer, Duration>> getAlarmPeriods(
+			final Connection connection, final Integer priorityId) throws SQLException {
+		final PreparedStatement statement;
+		if (priorityId != null) {
+			statement = StatementRegistry.prepare(connection, SELECT_PRIORITY_ALARM_PERIODS);
+			statement.setInt(1, priorityId);
+		} else {
+			statement = StatementRegistry.prepare(connection, SELECT_ALARM_PERIODS);
+		}
+		final Map<Integer, Map<Integer, Duration>> periods = new HashMap<>();
+		try (final ResultSet result = statement.executeQuery()) {
+			while (result.next()) {
+				periods.computeIfAbsent(result.getInt("PRIORITY_FK"), e -> new HashMap<>())
+						.put(result.getInt("ID"), new Duration(result.getInt("MONTHS"),
+							result.getInt("DAYS"), 0, result.getInt("MINUTES")));
+			}
+		}
+		return periods;
+	}
+
+	/**
+	 * @param connection the connection to use
+	 * @param sql the query of the APPOINTMENTS_VIEW
+	 * @param priorityId the ID of the Priority to bind or null
+	 * @return the series
+	 * @throws SQLException
+	 */
+	private static List<Series> selectSeries(final Connection connection, final String sql,
+			final Integer priorityId) throws SQLException {
+		final PreparedStatement statement = StatementRegistry.prepare(connection, sql);
+		if (priorityId != null) {
+			statement.setInt(1, priorityId);
+		}
+		final List<Series> series = new ArrayList<>();
+		try (final ResultSet result = statement.executeQuery()) {
+			while (result.next()) {
+				series.add(DatabaseController.toSeries(result));
+			}
+		}
+		return series;
+	}
+
+	/**
+	 * Creates the alarms of the rows selected by {@link #SELECT_ALARMS SELECT_ALARMS}.
+	 * @param statement the prepared statement
+	 * @return the alarms
+	 * @throws SQLException
+	 */
+	private static List<Alarm> toAlarms(final PreparedStatement statement)
+			throws SQLException {
+		final List<Alarm> alarms = new ArrayList<>();
+		try (final ResultSet result = statement.executeQuery()) {
+			while (result.next()) {
+				final Series series = DatabaseController.toSeries(result);
+				final long start = EpochMinutes.ofMillis(result.getLong("ALARM_START"));
+				alarms.add(new Alarm(series, result.getInt("PERIOD_FK"), start,
+						start + series.getRecurrence().getLength(),
+						new Duration(result.getInt("ALARM_MONTHS"),
+							result.getInt("ALARM_DAYS"), 0, result.getInt("ALARM_MINUTES"))));
+			}
+		}
+		return alarms;
+	}
+}
@@ -0,0 +1,282 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import database.appointment.Appointment;
+import database.appointment.AppointmentGroup;
+import database.appointment.AppointmentItem;
+import database.appointment.RecurrenceCursor;
+import database.appointment.Series;
+import logging.LoggingController;
+
+/**
+ * Static Class, that finds the occurrences of stored
+ * {@link Appointment Appointments} colliding with a new
+ * {@link AppointmentGroup AppointmentGroup} over the whole lifetime of its
+ * series.<br/>
+ * A sweep line passes the occurrences of the new items and of the stored
+ * series in the order of their start, keeping those still running active.
+ * While no new occurrence is running, the cursors of the stored series jump
+ * directly to the next new occurrence, so that long and dense calendars are
+ * only looked at where a collision is possible. The sweep ends early, once
+ * its time budget or the maximal amount of reported conflicts is reached.
+ * @author Mario Schäper
+ */
+public abstract class ConflictDetector {
+	private static final int MAX_CONFLICTS = 1000;
+	private static final int STEPS_PER_BUDGET_CHECK = 256;
+
+	/**
+	 * Immutable collision of an occurrence of a new item with another
+	 * occurrence.
+	 */
+	public static final class Conflict {
+		private final int itemIndex;
+		private final long start;
+		private final long end;
+		private final Appointment other;
+
+		private Conflict(final int itemIndex, final long start, final long end,
+				final Appointment other) {
+			this.itemIndex = itemIndex;
+			this.start = start;
+			this.end = end;
+			this.other = other;
+		}
+
+		/**
+		 * @return the index of the new item within its AppointmentGroup
+		 */
+		public int getItemIndex() {
+			return this.itemIndex;
+		}
+
+		/**
+		 * @return the start of the new occurrence in local minutes
+		 */
+		public long getStart() {
+			return this.start;
+		}
+
+		/**
+		 * @return the end of the new occurrence in local minutes
+		 */
+		public long getEnd() {
+			return this.end;
+		}
+
+		/**
+		 * @return the colliding occurrence, which is either stored or belongs
+		 * 		to another item of the new AppointmentGroup
+		 */
+		public Appointment getOther() {
+			return this.other;
+		}
+	}
+
+	/**
+	 * Immutable result of a detection.
+	 */
+	public static final class Report {
+		private final List<Conflict> conflicts;
+		private final boolean complete;
+
+		private Report(final List<Conflict> conflicts, final boolean complete) {
+			this.conflicts = Collections.unmodifiableList(conflicts);
+			this.complete = complete;
+		}
+
+		/**
+		 * @return the conflicts ordered by the start of the new occurrence
+		 */
+		public List<Conflict> getConflicts() {
+			return this.conflicts;
+		}
+
+		/**
+		 * @return whether there are any conflicts
+		 */
+		public boolean hasConflicts() {
+			return !this.conflicts.isEmpty();
+		}
+
+		/**
+		 * @return whether the whole lifetime of the series has been checked
+		 * 		before the time budget ran out
+		 */
+		public boolean isComplete() {
+			return this.complete;
+		}
+	}
+
+	/**
+	 * Occurrence of a series, that is passed by the sweep line.
+	 */
+	private static final class Position {
+		private final int itemIndex;
+		private final String subject;
+		private final String description;
+		private final RecurrenceCursor cursor;
+
+		private Position(final int itemIndex, final String subject,
+				final String description, final RecurrenceCursor cursor) {
+			this.itemIndex = itemIndex;
+			this.subject = subject;
+			this.description = description;
+			this.cursor = cursor;
+		}
+
+		private Appointment toAppointment() {
+			return new Appointment(this.subject, this.description,
+					this.cursor.getStart(), this.cursor.getEnd());
+		}
+	}
+
+	/**
+	 * Occurrence, that has started and not yet ended at the sweep line.
+	 */
+	private static final class Active {
+		private final Position position;
+		private final long start;
+		private final long end;
+
+		private Active(final Position position) {
+			this.position = position;
+			this.start = position.cursor.getStart();
+			this.end = position.cursor.getEnd();
+		}
+
+		private Appointment toAppointment() {
+			return new Appointment(this.position.subject, this.position.description,
+					this.start, this.end);
+		}
+	}
+
+	/**
+	 * Returns the collisions of the occurrences of the given
+	 * {@link AppointmentGroup AppointmentGroup} with the stored Appointments
+	 * and with each other.
+	 * @param group the new AppointmentGroup
+	 * @param budgetMillis the time after which the sweep is stopped
+	 * @return the report or null, if the stored Appointments could not be loaded
+	 */
+	public static Report detect(final AppointmentGroup group, final long budgetMillis) {
+		final long deadline = System.nanoTime() + budgetMillis * 1000000L;
+		final List<AppointmentItem> items = group.getAppointmentItems();
+		final PriorityQueue<Position> added = ConflictDetector.queue();
+		long from = Long.MAX_VALUE;
+		long to = Long.MIN_VALUE;
+		for (int i = 0; items != null && i < items.size(); i++) {
+			final RecurrenceCursor cursor = items.get(i).getRecurrence().cursor();
+			if (cursor.getEnd() > cursor.getStart()) {
+				added.add(new Position(i, group.getSubject(), group.getDescription(), cursor));
+				from = Math.min(from, items.get(i).getRecurrence().getStart());
+				to = Math.max(to, items.get(i).getRecurrence().getEnd());
+			}
+		}
+		final List<Conflict> conflicts = new ArrayList<>();
+		if (added.isEmpty()) {
+			return new Report(conflicts, true);
+		}
+		final PriorityQueue<Position> stored = ConflictDetector.queue();
+		try {
+			for (final Series series : DatabaseController.getLocalSeriesBetween(from, to)) {
+				final RecurrenceCursor cursor = series.getRecurrence().cursor();
+				if (cursor.seekTo(from) && cursor.getEnd() > cursor.getStart()) {
+					stored.add(new Position(-1, series.getSubject(),
+							series.getDescription(), cursor));
+				}
+			}
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to detect conflicts of " + group + ": " + e.getMessage());
+			return null;
+		}
+		final List<Active> activeAdded = new ArrayList<>();
+		final List<Active> activeStored = new ArrayList<>();
+		int steps = 0;
+		while (!added.isEmpty() || !activeAdded.isEmpty()) {
+			if (++steps % STEPS_PER_BUDGET_CHECK == 0 && System.nanoTime() > deadline) {
+				return ConflictDetector.report(conflicts, false);
+			}
+			final Position next = stored.isEmpty() || (!added.isEmpty()
+					&& added.peek().cursor.getStart() < stored.peek().cursor.getStart())
+					? added.poll()
+					: stored.poll();
+			if (next == null) {
+				break;
+			}
+			final long start = next.cursor.getStart();
+			ConflictDetector.removeEnded(activeAdded, start);
+			ConflictDetector.removeEnded(activeStored, start);
+			if (next.itemIndex >= 0) {
+				for (final Active active : activeStored) {
+					conflicts.add(new Conflict(next.itemIndex, start,
+							next.cursor.getEnd(), active.toAppointment()));
+				}
+				for (final Active active : activeAdded) {
+					if (active.position.itemIndex != next.itemIndex) {
+						conflicts.add(new Conflict(next.itemIndex, start,
+								next.cursor.getEnd(), active.toAppointment()));
+					}
+				}
+				activeAdded.add(new Active(next));
+				if (next.cursor.next()) {
+					added.add(next);
+				}
+			} else {
+				final long nextAdded = added.isEmpty()
+						? Long.MAX_VALUE
+						: added.peek().cursor.getStart();
+				if (activeAdded.isEmpty() && next.cursor.getEnd() <= nextAdded) {
+					if (nextAdded != Long.MAX_VALUE && next.cursor.seekTo(nextAdded)) {
+						stored.add(next);
+					}
+					continue;
+				}
+				for (final Active active : activeAdded) {
+					conflicts.add(new Conflict(active.position.itemIndex, active.start,
+							active.end, next.toAppointment()));
+				}
+				activeStored.add(new Active(next));
+				if (next.cursor.next()) {
+					stored.add(next);
+				}
+			}
+			if (conflicts.size() >= MAX_CONFLICTS) {
+				return ConflictDetector.report(conflicts, false);
+			}
+		}
+		return ConflictDetector.report(conflicts, true);
+	}
+
+	private static Report report(final List<Conflict> conflicts, final boolean complete) {
+		conflicts.sort(Comparator.comparingLong(Conflict::getStart));
+		return new Report(conflicts, complete);
+	}
+
+	private static PriorityQueue<Position> queue() {
+		return new PriorityQueue<>(
+				Comparator.comparingLong(position -> position.cursor.getStart()));
+	}
+
+	/**
+	 * Removes all occurrences, that end before or at the sweep line.
+	 * @param active the active occurrences
+	 * @param time the position of the sweep line
+	 */
+	private static void removeEnded(final List<Active> active, final long time) {
+		final Iterator<Active> iterator = active.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().end <= time) {
+				iterator.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import logging.LoggingController;
+
+/**
+ * Static Class, that manages the {@link java.sql.Connection Connections} to the
+ * database.<br/>
+ * The database is used in WAL-mode with a single writing Connection and a small
+ * pool of read-only Connections, so that reading Threads neither wait for a
+ * running write nor see its uncommitted changes.
+ * @author Mario Schäper
+ */
+public abstract class ConnectionManager {
+	private static final String URL = "jdbc:sqlite:appointments.db";
+	private static final int READER_COUNT = 3;
+	private static final int BUSY_TIMEOUT = 5000;
+	private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
+	private static final BlockingQueue<Connection> READERS =
+			new ArrayBlockingQueue<>(READER_COUNT);
+	private static final ThreadLocal<Connection> CURRENT_READER = new ThreadLocal<>();
+	private static Connection writer;
+
+	/**
+	 * Function, that accesses the database through a
+	 * {@link java.sql.Connection Connection}.
+	 * @param <T> the type of the result
+	 */
+	@FunctionalInterface
+	public interface SQLFunction<T> {
+		T apply(Connection connection) throws SQLException;
+	}
+
+	/**
+	 * Action, that accesses the database through a
+	 * {@link java.sql.Connection Connection}.
+	 */
+	@FunctionalInterface
+	public interface SQLAction {
+		void apply(Connection connection) throws SQLException;
+	}
+
+	static {
+		try {
+			writer = DriverManager.getConnection(URL);
+			try (final Statement statement = writer.createStatement()) {
+				statement.execute("PRAGMA journal_mode = WAL;");
+				statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT + ";");
+			}
+			for (int i = 0; i < READER_COUNT; i++) {
+				final Connection reader = DriverManager.getConnection(URL);
+				try (final Statement statement = reader.createStatement()) {
+					statement.execute("PRAGMA query_only = ON;");
+					statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT + ";");
+				}
+				READERS.add(reader);
+			}
+			LoggingController.log(Level.FINE, "Database connection established.");
+		} catch (SQLException e) {
+			LoggingController.log(Level.SEVERE,
+					"Connection to database could not be established: " + e.getMessage());
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Executes the query with a read-only {@link java.sql.Connection Connection}
+	 * of the pool, waiting for one to become available if necessary.<br/>
+	 * If the current Thread is running a {@link #write(SQLFunction) write} the
+	 * writing Connection is used instead, so that its changes are visible.
+	 * Nested reads reuse the Connection of the enclosing read.
+	 * @param query the query
+	 * @return the result of the query
+	 * @throws SQLException if the query fails
+	 */
+	public static <T> T read(final SQLFunction<T> query) throws SQLException {
+		if (WRITE_LOCK.isHeldByCurrentThread()) {
+			return query.apply(writer);
+		}
+		if (CURRENT_READER.get() != null) {
+			return query.apply(CURRENT_READER.get());
+		}
+		final Connection reader;
+		try {
+			reader = READERS.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a Connection", e);
+		}
+		CURRENT_READER.set(reader);
+		try {
+			return query.apply(reader);
+		} finally {
+			CURRENT_READER.remove();
+			READERS.add(reader);
+		}
+	}
+
+	/**
+	 * Executes the transaction with the writing
+	 * {@link java.sql.Connection Connection}.<br/>
+	 * The transaction is committed if it succeeds and rolled back otherwise.
+	 * Writes of the same Thread, that are nested into the transaction, run
+	 * within a savepoint: if they fail, only their own changes are rolled back,
+	 * so that a caller catching the failure does not commit a partial write.
+	 * @param transaction the transaction
+	 * @return the result of the transaction
+	 * @throws SQLException if the transaction fails
+	 */
+	public static <T> T write(final SQLFunction<T> transaction) throws SQLException {
+		WRITE_LOCK.lock();
+		try {
+			if (WRITE_LOCK.getHoldCount() > 1) {
+				return ConnectionManager.nest(transaction);
+			}
+			writer.setAutoCommit(false);
+			try {
+				final T result = transaction.apply(writer);
+				writer.commit();
+				return result;
+			} catch (final SQLException | RuntimeException e) {
+				try {
+					writer.rollback();
+				} catch (final SQLException ex) {
+					LoggingController.log(Level.SEVERE, "Rollback failed: " + ex.getMessage());
+				}
+				throw e;
+			} finally {
+				writer.setAutoCommit(true);
+			}
+		} finally {
+			WRITE_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * @return whether the current Thread is running a write
+	 */
+	static boolean isWriting() {
+		return WRITE_LOCK.isHeldByCurrentThread();
+	}
+
+	/**
+	 * Executes a nested transaction within a savepoint of the enclosing one.
+	 * @param transaction the nested transaction
+	 * @return the result of the nested transaction
+	 * @throws SQLException if the nested transaction fails
+	 */
+	private static <T> T nest(final SQLFunction<T> transaction) throws SQLException {
+		final Savepoint savepoint = writer.setSavepoint();
+		try {
+			final T result = transaction.apply(writer);
+			writer.releaseSavepoint(savepoint);
+			return result;
+		} catch (final SQLException | RuntimeException e) {
+			try {
+				writer.rollback(savepoint);
+				writer.releaseSavepoint(savepoint);
+			} catch (final SQLException ex) {
+				LoggingController.log(Level.SEVERE, "Rollback failed: " + ex.getMessage());
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Executes the transaction without a result with the writing
+	 * {@link java.sql.Connection Connection}.
+	 * @param transaction the transaction
+	 * @throws SQLException if the transaction fails
+	 * @see #write(SQLFunction)
+	 */
+	public static void execute(final SQLAction transaction) throws SQLException {
+		ConnectionManager.write(connection -> {
+			transaction.apply(connection);
+			return null;
+		});
+	}
+
+	/**
+	 * Closes all {@link java.sql.Connection Connections}.
+	 * Waits for running reads and writes to finish.
+	 * @throws IllegalStateException if the current Thread is running a read,
+	 * 		whose Connection would never be returned
+	 */
+	public static void close() {
+		if (CURRENT_READER.get() != null) {
+			throw new IllegalStateException(
+					"The database connection cannot be closed within a read");
+		}
+		WRITE_LOCK.lock();
+		try {
+			for (int i = 0; i < READER_COUNT; i++) {
+				final Connection reader = READERS.take();
+				StatementRegistry.close(reader);
+				reader.close();
+			}
+			StatementRegistry.close(writer);
+			writer.close();
+			LoggingController.log(Level.FINE, "Database connection closed.");
+		} catch (final SQLException | InterruptedException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to close the database connection: " + e.getMessage());
+		} finally {
+			WRITE_LOCK.unlock();
+		}
+	}
+}
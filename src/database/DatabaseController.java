@@ -1,30 +1,44 @@
 package database;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.LineNumberReader;
-import java.nio.file.Files;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Savepoint;
 import java.sql.Statement;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import database.period.Period;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import database.appointment.Alarm;
 import database.appointment.Appointment;
 import database.appointment.AppointmentGroup;
 import database.appointment.AppointmentItem;
+import database.appointment.MissedAlarms;
+import database.appointment.Recurrence;
+import database.appointment.RecurrenceRule;
+import database.appointment.Series;
 import database.category.Category;
 import database.priority.Priority;
+import javafx.application.Platform;
 import logging.LoggingController;
 import util.Duration;
+import util.EpochMinutes;
 
 import static java.util.GregorianCalendar.DAY_OF_MONTH;
 import static java.util.GregorianCalendar.MONTH;
@@ -50,33 +64,126 @@ public abstract class DatabaseController {
 	private static final String UPDATE_PRIORITY =
 			"UPDATE PRIORITY SET NAME = ? WHERE ID = ?;";
 	private static final String INSERT_PERIOD =
-			"INSERT INTO PERIOD (MINUTES; DAYS; MONTHS) VALUES (?, ?, ?);";
+			"INSERT INTO PERIOD (MINUTES, DAYS, MONTHS) VALUES (?, ?, ?);";
+	private static final String INSERT_PRIORITY_PERIOD =
+			"INSERT INTO PRIORITY_PERIOD (PRIORITY_FK, PERIOD_FK) VALUES (?, ?);";
+	private static final String INSERT_CIRCLE =
+			"INSERT INTO CIRCLE (END_DATE, PERIOD_FK, RULE_FK) VALUES (?, ?, ?);";
+	private static final String INSERT_RULE = "INSERT INTO RECURRENCE_RULE "
+			+ "(WEEKDAYS, MONTH_DAYS, NTH_WEEKDAYS) VALUES (?, ?, ?);";
 	private static final String DELETE_PRIORITY =
 			"DELETE FROM PRIORITY WHERE ID = ?;";
 	private static final String DELETE_PRIORITY_PERIODS =
 			"DELETE FROM PRIORITY_PERIOD WHERE PRIORITY_FK = ?;";
+	private static final String DELETE_PRIORITY_PERIOD =
+			"DELETE FROM PRIORITY_PERIOD WHERE PRIORITY_FK = ? AND PERIOD_FK = ?;";
 	private static final String DELETE_CATEGORY = "DELETE FROM CATEGORY WHERE ID = ?;";
-	private static Connection connection;
-	@SuppressWarnings("unused")
-	private static ArrayList<ResultSet> results = new ArrayList<>();
-
-	//TODO: Datenbankzugriffe sollten zusammengefasst werden, indem der eigentliche zugriff in
-	//		einer eigenen Methode statt findet. eventuell ist der rollback ect. auch extrahierbar.
+	private static final String DELETE_APPOINTMENTGROUP_APPOINTMENTS =
+			"DELETE FROM APPOINTMENT WHERE ID IN (SELECT APPOINTMENT_FK "
+			+ "FROM APPOINTMENT_APPOINTMENT_GROUP WHERE APPOINTMENT_GROUP_FK = ?);";
+	private static final String DELETE_APPOINTMENTGROUP_LINKS =
+			"DELETE FROM APPOINTMENT_APPOINTMENT_GROUP WHERE APPOINTMENT_GROUP_FK = ?;";
+	private static final String DELETE_APPOINTMENTGROUP =
+			"DELETE FROM APPOINTMENT_GROUP WHERE ID = ?;";
+	private static final String SELECT_PRIORITY_APPOINTMENTS =
+			"SELECT AG.ID, AG.NAME, AG.DESCRIPTION, "
+			+ "C.ID AS CATEGORY_ID, C.NAME AS CATEGORY_NAME, "
+			+ "C.DESCRIPTION AS CATEGORY_DESCRIPTION "
+			+ "FROM APPOINTMENT_GROUP AS AG "
+			+ "LEFT JOIN CATEGORY AS C ON AG.CATEGORY_FK = C.ID "
+			+ "WHERE AG.PRIORITY_FK = ?;";
+	private static final String SELECT_CATEGORY_APPOINTMENTS = "SELECT ID, NAME, DESCRIPTION "
+			+ "FROM APPOINTMENT_GROUP WHERE CATEGORY_FK = ?;";
+	static final String SELECT_SERIES_BETWEEN = "SELECT * FROM APPOINTMENTS_VIEW "
+			+ "WHERE START_DATE < ? "
+			+ "AND (MAX(REPETITION_END, START_DATE) + (END_DATE - START_DATE)) > ?;";
+	/**
+	 * Selects the series by the R*Tree of their spans first. The bounds of the
+	 * R*Tree are rounded outwards to 32 bit floats, so its matches are a
+	 * superset, that is refined by the exact condition. The CROSS JOIN keeps
+	 * the R*Tree as the outer loop.
+	 */
+	static final String SELECT_SERIES_BETWEEN_SPAN = "SELECT V.* "
+			+ "FROM APPOINTMENT_SPAN AS S CROSS JOIN APPOINTMENTS_VIEW AS V "
+			+ "ON V.APPOINTMENT_ID = S.ID "
+			+ "WHERE S.START_DATE < ? AND S.END_DATE > ? "
+			+ "AND V.START_DATE < ? "
+			+ "AND (MAX(V.REPETITION_END, V.START_DATE) + (V.END_DATE - V.START_DATE)) > ?;";
+	private static final String SELECT_SERIES_OF_APPOINTMENTS =
+			"SELECT * FROM APPOINTMENTS_VIEW WHERE APPOINTMENT_ID BETWEEN ? AND ?;";
+	private static final String SELECT_CATEGORY =
+			"SELECT NAME, DESCRIPTION FROM CATEGORY WHERE ID = ?;";
+	private static final String SELECT_CATEGORIES = "SELECT * FROM CATEGORY;";
+	private static final String SELECT_PRIORITIES_WITH_PERIODS =
+			"SELECT PR.ID, PR.NAME, P.ID AS PERIOD_ID, P.MINUTES, P.DAYS, P.MONTHS "
+			+ "FROM PRIORITY AS PR "
+			+ "LEFT JOIN PRIORITY_PERIOD AS PP ON PP.PRIORITY_FK = PR.ID "
+			+ "LEFT JOIN PERIOD AS P ON PP.PERIOD_FK = P.ID ";
+	private static final String SELECT_PRIORITY = SELECT_PRIORITIES_WITH_PERIODS
+			+ "WHERE PR.ID = ?;";
+	private static final String SELECT_PRIORITIES = SELECT_PRIORITIES_WITH_PERIODS
+			+ "ORDER BY PR.ID;";
+	private static final String SELECT_PERIOD = "SELECT ID FROM PERIOD "
+			+ "WHERE MINUTES = ? AND DAYS = ? AND MONTHS = ?;";
+	private static final String SELECT_CIRCLE = "SELECT ID FROM CIRCLE "
+			+ "WHERE PERIOD_FK = ? AND END_DATE IS ? AND RULE_FK IS ?;";
+	private static final String SELECT_RULE = "SELECT ID FROM RECURRENCE_RULE "
+			+ "WHERE WEEKDAYS = ? AND MONTH_DAYS = ? AND NTH_WEEKDAYS = ?;";
+	private static final String SELECT_PRIORITY_PERIODS =
+			"SELECT PERIOD_FK FROM PRIORITY_PERIOD WHERE PRIORITY_FK = ?;";
+	private static final IdentityMap<Category> CATEGORIES = new IdentityMap<>();
+	private static final IdentityMap<Priority> PRIORITIES = new IdentityMap<>();
+	private static final IdentityMap<Period> PERIODS = new IdentityMap<>();
+	private static final List<SeriesListener> LISTENERS = new CopyOnWriteArrayList<>();
+	/**
+	 * Whether all series are kept in the {@link SeriesIndex SeriesIndex}.
+	 * Can be disabled by the system property
+	 * {@code personalOrganizer.seriesIndex=false}.
+	 */
+	private static final boolean SERIES_INDEX_ENABLED = Boolean.parseBoolean(
+			System.getProperty("personalOrganizer.seriesIndex", "true"));
+	/**
+	 * Whether the series of a range are looked up by the R*Tree of their spans
+	 * instead of the B-tree index on their start. Can be disabled by the system
+	 * property {@code personalOrganizer.spanIndex=false}.
+	 */
+	private static final boolean SPAN_INDEX_ENABLED = Boolean.parseBoolean(
+			System.getProperty("personalOrganizer.spanIndex", "true"));
+	/**
+	 * Whether the {@link OccurrenceTable OccurrenceTable} is kept around the
+	 * current date by this process. It is only read while the
+	 * {@link SeriesIndex SeriesIndex} is not loaded, so by default it is only
+	 * kept if the index is disabled. Can be set by the system property
+	 * {@code personalOrganizer.occurrenceTable}.
+	 */
+	private static final boolean OCCURRENCE_TABLE_ENABLED = Boolean.parseBoolean(
+			System.getProperty("personalOrganizer.occurrenceTable",
+					String.valueOf(!SERIES_INDEX_ENABLED)));
 
 	static {
 		try {
-			connection = DriverManager.getConnection("jdbc:sqlite:appointments.db");
-			LoggingController.log(Level.FINE, "Database connection established.");
-		} catch (SQLException e) {
+			SchemaMigrator.migrate();
+			if (OCCURRENCE_TABLE_ENABLED) {
+				OccurrenceTable.startMaintenance();
+			} else {
+				OccurrenceTable.clearUnmaintained();
+			}
+			LoggingController.log(Level.FINE, "Database initialized.");
+		} catch (IOException | SQLException e) {
 			LoggingController.log(Level.SEVERE,
-					"Connection to database could not be established: " + e.getMessage());
+					"Database could not be migrated: " + e.getMessage());
 			System.exit(0);
 		}
-		DatabaseController.runScript("CREATE_TABLE");
-		DatabaseController.runScript("INSERT_INTO");
-		DatabaseController.runScript("CREATE_TRIGGER");
-		DatabaseController.runScript("CREATE_VIEW");
-		LoggingController.log(Level.FINE, "Database initialized.");
+		if (SERIES_INDEX_ENABLED) {
+			try {
+				SeriesIndex.load(DatabaseController.getSeriesBetween(
+						Long.MIN_VALUE, Long.MAX_VALUE));
+				LoggingController.log(Level.FINE, "Series index loaded.");
+			} catch (final SQLException e) {
+				LoggingController.log(Level.WARNING,
+						"Unable to load the series index: " + e.getMessage());
+			}
+		}
 	}
 
 	/**
@@ -84,66 +191,155 @@ public abstract class DatabaseController {
 	 * @param appointment the Appointment
 	 */
 	public static void addAppointment(final AppointmentGroup appointment) {
-		PreparedStatement statement = null;
-		Savepoint savepoint = null;
-		final Priority priority = appointment.getPriority() != null
-				? appointment.getPriority()
-				: Priority.NONE;
-		final Category category = appointment.getCategory() != null
-				? appointment.getCategory()
-				: Category.NONE;
-		if (!priority.hasId())  {
-			DatabaseController.addPriority(priority);
-		}
-		if (!category.hasId()) {
-			DatabaseController.addCategory(category);
+		DatabaseController.addAppointments(Collections.singletonList(appointment));
+	}
+
+	/**
+	 * Adds multiple {@link AppointmentGroup Appointments} to the Database
+	 * within a single transaction.<br/>
+	 * The rows are inserted in batches and {@link Duration Periods} and
+	 * circles shared between the Appointments are only looked up once.
+	 * @param appointments the Appointments
+	 */
+	public static void addAppointments(final List<AppointmentGroup> appointments) {
+		for (final AppointmentGroup appointment : appointments) {
+			if (!appointment.getPriority().hasId())  {
+				DatabaseController.addPriority(appointment.getPriority());
+			}
+			if (!appointment.getCategory().hasId()) {
+				DatabaseController.addCategory(appointment.getCategory());
+			}
 		}
+		final List<Series> addedSeries = new ArrayList<>();
+		final int[] firstGroupIds = {0};
 		try {
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			statement = connection.prepareStatement(INSERT_APPOINTMENTGROUP);
-			statement.setString(1, appointment.getSubject());
-			statement.setString(2, appointment.getDescription());
-			statement.setInt(3, priority.getId());
-			statement.setInt(4, category.getId());
-			statement.executeUpdate();
-			statement.close();
-			final int appointmentGroupId = DatabaseController.getMaxId("APPOINTMENT_GROUP");
-			for (final AppointmentItem app : appointment.getAppointmentItems()) {
-				statement = connection.prepareStatement(INSERT_APPOINTMENT);
-				statement.setLong(1, app.getStartDate().getTimeInMillis());
-				statement.setLong(2, app.getEndDate().getTimeInMillis());
-				statement.setInt(3,
-						DatabaseController.getCircleId(
-							DatabaseController.getDurationId(app.getRepetition()),
-							app.getRepetitionEnd()));
-				statement.executeUpdate();
-				statement.close();
-				statement = connection.prepareStatement(INSERT_APPOINTMENT_APPOINTMENT_GROUP);
-				statement.setInt(1, DatabaseController.getMaxId("APPOINTMENT"));
-				statement.setInt(2, appointmentGroupId);
-				statement.executeUpdate();
-				statement.close();
+			final int amountAdded = AlarmTable.write(connection -> {
+				PreparedStatement statement =
+						StatementRegistry.prepare(connection, INSERT_APPOINTMENTGROUP);
+				for (final AppointmentGroup appointment : appointments) {
+					statement.setString(1, appointment.getSubject());
+					statement.setString(2, appointment.getDescription());
+					statement.setInt(3, appointment.getPriority().getId());
+					statement.setInt(4, appointment.getCategory().getId());
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				// the writer holds the database exclusively, so the AUTOINCREMENT
+				// keys of a batch are consecutive and end with the generated key
+				final int firstGroupId =
+						DatabaseController.getGeneratedId(statement) - appointments.size() + 1;
+				firstGroupIds[0] = firstGroupId;
+				final Map<Duration, Integer> periodIds = new HashMap<>();
+				final Map<RecurrenceRule, Integer> ruleIds = new HashMap<>();
+				final Map<List<Object>, Integer> circleIds = new HashMap<>();
+				final List<Integer> groupIds = new ArrayList<>();
+				statement = StatementRegistry.prepare(connection, INSERT_APPOINTMENT);
+				for (int i = 0; i < appointments.size(); i++) {
+					final List<AppointmentItem> items = appointments.get(i).getAppointmentItems();
+					if (items == null) {
+						continue;
+					}
+					for (final AppointmentItem app : items) {
+						Integer periodId = periodIds.get(app.getRepetition());
+						if (periodId == null) {
+							periodId = DatabaseController.getDurationId(
+									connection, app.getRepetition());
+							periodIds.put(app.getRepetition(), periodId);
+						}
+						final Long repetitionEnd = app.hasRepetitionEnd()
+								? EpochMinutes.toMillis(app.getRepetitionEndMinutes())
+								: null;
+						Integer ruleId = null;
+						if (app.getRule() != null) {
+							ruleId = ruleIds.get(app.getRule());
+							if (ruleId == null) {
+								ruleId = DatabaseController.getRuleId(connection, app.getRule());
+								ruleIds.put(app.getRule(), ruleId);
+							}
+						}
+						final List<Object> circle = Arrays.asList(periodId, repetitionEnd, ruleId);
+						Integer circleId = circleIds.get(circle);
+						if (circleId == null) {
+							circleId = DatabaseController.getCircleId(
+									connection, periodId, repetitionEnd, ruleId);
+							circleIds.put(circle, circleId);
+						}
+						statement.setLong(1, EpochMinutes.toMillis(app.getStart()));
+						statement.setLong(2, EpochMinutes.toMillis(app.getEnd()));
+						statement.setInt(3, circleId);
+						statement.addBatch();
+						groupIds.add(firstGroupId + i);
+					}
+				}
+				if (!groupIds.isEmpty()) {
+					statement.executeBatch();
+					final int firstAppointmentId =
+							DatabaseController.getGeneratedId(statement) - groupIds.size() + 1;
+					statement = StatementRegistry.prepare(
+							connection, INSERT_APPOINTMENT_APPOINTMENT_GROUP);
+					for (int i = 0; i < groupIds.size(); i++) {
+						statement.setInt(1, firstAppointmentId + i);
+						statement.setInt(2, groupIds.get(i));
+						statement.addBatch();
+					}
+					statement.executeBatch();
+					addedSeries.addAll(DatabaseController.getSeriesOfAppointments(
+							connection, firstAppointmentId, firstAppointmentId + groupIds.size() - 1));
+					OccurrenceTable.insert(connection, addedSeries);
+					AlarmTable.insert(connection, addedSeries, System.currentTimeMillis());
+				}
+				return groupIds.size();
+			});
+			// the IDs are only assigned once they have been committed
+			for (int i = 0; i < appointments.size(); i++) {
+				appointments.get(i).initializeId(firstGroupIds[0] + i);
+			}
+			if (SeriesIndex.isLoaded()) {
+				SeriesIndex.add(addedSeries);
 			}
-			connection.commit();
-			LoggingController.log(Level.FINE, "Added Appointment to Database.");
+			if (!addedSeries.isEmpty()) {
+				LISTENERS.forEach(listener -> listener.seriesAdded(addedSeries));
+			}
+			LoggingController.log(Level.FINE, "Added " + appointments.size()
+					+ " Appointments with " + amountAdded + " Items to Database.");
 		} catch (final SQLException e) {
 			LoggingController.log(Level.WARNING,
-					"Failed to add Appointment to Database: " + e.getMessage());
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (final SQLException ex) {
-					LoggingController.log(Level.SEVERE, "Rollback failed: " + ex.getMessage());
-				}
+					"Failed to add Appointments to Database: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes an {@link AppointmentGroup Appointment} together with all of its
+	 * items from the Database.
+	 * @param appointment the Appointment
+	 */
+	public static void removeAppointment(final AppointmentGroup appointment) {
+		try {
+			if (!appointment.hasId()) {
+				throw new SQLException("Appointment does not exist in the Database");
 			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
+			final int amountRemoved = AlarmTable.write(connection -> {
+				PreparedStatement statement = StatementRegistry.prepare(
+						connection, DELETE_APPOINTMENTGROUP_APPOINTMENTS);
+				statement.setInt(1, appointment.getId());
+				final int itemsRemoved = statement.executeUpdate();
+				statement = StatementRegistry.prepare(connection, DELETE_APPOINTMENTGROUP_LINKS);
+				statement.setInt(1, appointment.getId());
+				statement.executeUpdate();
+				statement = StatementRegistry.prepare(connection, DELETE_APPOINTMENTGROUP);
+				statement.setInt(1, appointment.getId());
+				if (statement.executeUpdate() == 0) {
+					throw new SQLException("Appointment does not exist in the Database");
 				}
-			} catch (final SQLException e) {}
+				return itemsRemoved;
+			});
+			SeriesIndex.removeGroup(appointment.getId());
+			LISTENERS.forEach(listener -> listener.groupRemoved(appointment.getId()));
+			LoggingController.log(Level.FINE, "Removed Appointment with "
+					+ amountRemoved + " Items from Database.");
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Failed to remove Appointment from Database: " + e.getMessage());
 		}
 	}
 
@@ -155,21 +351,35 @@ public abstract class DatabaseController {
 				throw new SQLException(
 						"Category does not exist in the Database");
 			}
-			final Statement statement = connection.createStatement();
-			final ResultSet result = statement.executeQuery(
-					"SELECT ID, NAME, DESCRIPTION, CATEGORY_FK "
-					+ "FROM APPOINTMENT_GROUP "
-					+ "WHERE PRIORITY_FK = " + priority.getId());
-			while (result.next()) {
-				ret.add(new AppointmentGroup(
-						result.getInt("ID"),
-						result.getString("NAME"),
-				result.getString("DESCRIPTION"),
-				DatabaseController.getCategoryById(
-						result.getInt("CATEGORY_FK")),
-				priority,
-				null));
-			}
+			ConnectionManager.read(connection -> {
+				final PreparedStatement statement =
+						StatementRegistry.prepare(connection, SELECT_PRIORITY_APPOINTMENTS);
+				statement.setInt(1, priority.getId());
+				try (final ResultSet result = statement.executeQuery()) {
+					while (result.next()) {
+						final int categoryId = result.getInt("CATEGORY_ID");
+						final Category category;
+						if (result.wasNull()) {
+							category = Category.createInstance(
+									DatabaseItem.UNASSIGNED_ID, "NONE", "");
+						} else {
+							final String name = result.getString("CATEGORY_NAME");
+							final String description =
+									result.getString("CATEGORY_DESCRIPTION");
+							category = CATEGORIES.get(categoryId, () ->
+									Category.createInstance(categoryId, name, description));
+						}
+						ret.add(new AppointmentGroup(
+								result.getInt("ID"),
+								result.getString("NAME"),
+								result.getString("DESCRIPTION"),
+								category,
+								priority,
+								null));
+					}
+				}
+				return null;
+			});
 		} catch (final SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Unable to get Appointments for Priority(id="
@@ -187,50 +397,129 @@ public abstract class DatabaseController {
 	 * @return list of all appointments sorted by starttime
 	 */
 	public static ArrayList<Appointment> getDayAppointments(GregorianCalendar date) {
-		ArrayList<Appointment> appointments = new ArrayList<>();
 		GregorianCalendar dateStart = new GregorianCalendar(date.get(YEAR),
 				date.get(MONTH), date.get(DAY_OF_MONTH));
 		GregorianCalendar dateEnd = (GregorianCalendar)dateStart.clone();
 		dateEnd.add(DAY_OF_MONTH, 1);
+		return DatabaseController.getAppointmentsBetween(dateStart, dateEnd);
+	}
+
+	/**
+	 * Returns an {@link java.util.ArrayList ArrayList} of all
+	 * {@link Appointment Appointments}, that take place at the current minute.
+	 * @return list of all appointments sorted by starttime
+	 */
+	public static ArrayList<Appointment> getCurrentAppointments() {
+		final GregorianCalendar now = new GregorianCalendar();
+		final GregorianCalendar end = (GregorianCalendar)now.clone();
+		end.add(GregorianCalendar.MINUTE, 1);
+		return DatabaseController.getAppointmentsBetween(now, end);
+	}
+
+	/**
+	 * Returns an {@link java.util.ArrayList ArrayList} of all occurrences of
+	 * {@link Appointment Appointments}, that intersect the given range.<br/>
+	 * The series are taken from the {@link SeriesIndex SeriesIndex} if it is
+	 * loaded. Otherwise ranges within the horizon of the
+	 * {@link OccurrenceTable OccurrenceTable} are read from it, and every other
+	 * series is only queried and expanded once for the whole range. Many series
+	 * are expanded in parallel by the {@link OccurrenceExpander OccurrenceExpander}.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @return list of all appointments sorted by starttime
+	 */
+	public static ArrayList<Appointment> getAppointmentsBetween(
+			final GregorianCalendar start, final GregorianCalendar end) {
+		final List<Series> seriesBetween;
+		final SeriesIndex.Snapshot snapshot = SeriesIndex.snapshot();
 		try {
-			Statement statement = connection.createStatement();
-			ResultSet result = statement.executeQuery("SELECT * FROM APPOINTMENTS_VIEW " +
-					"WHERE START_DATE < " + dateEnd.getTimeInMillis() + " AND " +
-					"(REPETITION_END + (END_DATE - START_DATE)) >= " + dateStart.getTimeInMillis());
-			while (result.next()) {
-				GregorianCalendar start = new GregorianCalendar();
-				GregorianCalendar end = new GregorianCalendar();
-				start.setTime(result.getDate("START_DATE"));
-				end.setTime(result.getDate("END_DATE"));
-				Duration appDuration = new Duration(start, end);
-				Duration repetition = new Duration(result.getInt("REPETITION_MONTHS"),
-						0, 0, result.getInt("REPETITION_MINUTES"));
-				if (!repetition.equals(Duration.NONE)) {
-					int div = (int)Math.ceil(Duration.divide(
-							new Duration(start, Duration.subtract(dateStart, appDuration)),
-							repetition));
-					while (!Duration.add(end, Duration.multiply(repetition, ++div)).after(dateStart)) {
-					}
-					GregorianCalendar current =
-							Duration.add(start, Duration.multiply(repetition, --div));
-					do {
-						appointments.add(new Appointment(result.getString("NAME"),
-								result.getString("DESCRIPTION"), current,
-								Duration.add(current, appDuration)));
-					} while ((current = Duration.add(start, Duration.multiply(repetition, ++div)))
-							.before(dateEnd));
-				} else {
-					appointments.add(new Appointment(result.getString("NAME"),
-							result.getString("DESCRIPTION"), start, end));
+			if (snapshot != null) {
+				seriesBetween = snapshot.getSeriesBetween(
+						EpochMinutes.of(start), EpochMinutes.of(end));
+			} else {
+				final ArrayList<Appointment> occurrences = OccurrenceTable.getAppointmentsBetween(
+						start.getTimeInMillis(), end.getTimeInMillis());
+				if (occurrences != null) {
+					return occurrences;
 				}
+				seriesBetween = DatabaseController.getSeriesBetween(
+						start.getTimeInMillis(), end.getTimeInMillis());
 			}
-		} catch (SQLException e) {
-			LoggingController.log(Level.WARNING, "Unable to get Appointments for " +
-					(new SimpleDateFormat("YYYY-MM-dd")).format(date.getTime()) +
-					": " + e.getMessage());
+		} catch (final SQLException e) {
+			final SimpleDateFormat format = new SimpleDateFormat("YYYY-MM-dd");
+			LoggingController.log(Level.WARNING, "Unable to get Appointments between "
+					+ format.format(start.getTime()) + " and "
+					+ format.format(end.getTime()) + ": " + e.getMessage());
+			return null;
+		}
+		return OccurrenceExpander.expand(
+				seriesBetween, EpochMinutes.of(start), EpochMinutes.of(end));
+	}
+
+	/**
+	 * Returns a lazily evaluated {@link java.util.stream.Stream Stream} of all
+	 * occurrences of {@link Appointment Appointments}, that intersect the given
+	 * range, ordered by their start.<br/>
+	 * Only the series are loaded up front; their occurrences are expanded while
+	 * the Stream is consumed, so that long ranges are processed in constant
+	 * memory and short-circuiting operations stop the expansion early.
+	 * A parallel Stream splits the range into consecutive parts.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @return the stream of appointments or null, if the series could not be
+	 * 		loaded
+	 */
+	public static Stream<Appointment> streamAppointmentsBetween(
+			final GregorianCalendar start, final GregorianCalendar end) {
+		final List<Series> seriesBetween;
+		try {
+			seriesBetween = DatabaseController.getLocalSeriesBetween(
+					EpochMinutes.of(start), EpochMinutes.of(end));
+		} catch (final SQLException e) {
+			final SimpleDateFormat format = new SimpleDateFormat("YYYY-MM-dd");
+			LoggingController.log(Level.WARNING, "Unable to stream Appointments between "
+					+ format.format(start.getTime()) + " and "
+					+ format.format(end.getTime()) + ": " + e.getMessage());
 			return null;
 		}
-		return appointments;
+		return StreamSupport.stream(new OccurrenceSpliterator(
+				seriesBetween, EpochMinutes.of(start), EpochMinutes.of(end)), false);
+	}
+
+	/**
+	 * Returns all occurrences of {@link Appointment Appointments}, that
+	 * intersect the given range, grouped by the days they intersect.<br/>
+	 * Every day of the range is contained, even if it has no Appointments.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @return the appointments of each day sorted by starttime
+	 * @see #getAppointmentsBetween(GregorianCalendar, GregorianCalendar)
+	 */
+	public static TreeMap<LocalDate, ArrayList<Appointment>> getAppointmentsPerDay(
+			final GregorianCalendar start, final GregorianCalendar end) {
+		final ArrayList<Appointment> appointments =
+				DatabaseController.getAppointmentsBetween(start, end);
+		if (appointments == null) {
+			return null;
+		}
+		final TreeMap<LocalDate, ArrayList<Appointment>> days = new TreeMap<>();
+		final LocalDate lastDay = EpochMinutes.toLocalDate(EpochMinutes.of(end) - 1);
+		for (LocalDate day = EpochMinutes.toLocalDate(EpochMinutes.of(start));
+				!day.isAfter(lastDay); day = day.plusDays(1)) {
+			days.put(day, new ArrayList<>());
+		}
+		for (final Appointment appointment : appointments) {
+			final LocalDate appointmentEnd = EpochMinutes.toLocalDate(
+					Math.max(appointment.getStart(), appointment.getEnd() - 1));
+			for (final ArrayList<Appointment> dayAppointments : days.subMap(
+					EpochMinutes.toLocalDate(appointment.getStart()),
+					true,
+					appointmentEnd,
+					true).values()) {
+				dayAppointments.add(appointment);
+			}
+		}
+		return days;
 	}
 
 	public static ArrayList<AppointmentGroup> getCategoryAppointments(Category category) {
@@ -239,14 +528,18 @@ public abstract class DatabaseController {
 			if (!category.hasId()) {
 				throw new SQLException("Category does not exist in the Database");
 			}
-			Statement statement = connection.createStatement();
-			ResultSet result = statement.executeQuery("SELECT ID, NAME, DESCRIPTION " +
-					"FROM APPOINTMENT_GROUP " +
-					"WHERE CATEGORY_FK = " + category.getId());
-			while (result.next()) {
-				ret.add(new AppointmentGroup(result.getInt("ID"), result.getString("NAME"),
-						result.getString("DESCRIPTION"), category, null, null));
-			}
+			ConnectionManager.read(connection -> {
+				PreparedStatement statement =
+						StatementRegistry.prepare(connection, SELECT_CATEGORY_APPOINTMENTS);
+				statement.setInt(1, category.getId());
+				try (ResultSet result = statement.executeQuery()) {
+					while (result.next()) {
+						ret.add(new AppointmentGroup(result.getInt("ID"), result.getString("NAME"),
+								result.getString("DESCRIPTION"), category, null, null));
+					}
+				}
+				return null;
+			});
 		} catch (SQLException e) {
 			LoggingController.log(Level.WARNING, "Unable to get Appointments for Category(id=" +
 					category.getId() + " name=\"" + category.getName() + "\"):" + e.getMessage());
@@ -256,106 +549,230 @@ public abstract class DatabaseController {
 	}
 
 	public static Category getCategoryById(int id) {
-		String name = "NONE";
-		String description = "";
+		final Category cached = CATEGORIES.get(id);
+		if (cached != null) {
+			return cached;
+		}
+		final String[] values = {"NONE", ""};
 		try {
-			ResultSet result = connection.createStatement().executeQuery(
-					"SELECT NAME, DESCRIPTION FROM CATEGORY WHERE ID = " + id + ";");
-			if (!result.isClosed()) {
-				name = result.getString("NAME");
-				description = result.getString("DESCRIPTION");
-			} else {
-				throw new SQLException("Category does not exist");
-			}
+			final int categoryId = id;
+			ConnectionManager.read(connection -> {
+				final PreparedStatement statement =
+						StatementRegistry.prepare(connection, SELECT_CATEGORY);
+				statement.setInt(1, categoryId);
+				try (ResultSet result = statement.executeQuery()) {
+					if (result.next()) {
+						values[0] = result.getString("NAME");
+						values[1] = result.getString("DESCRIPTION");
+					} else {
+						throw new SQLException("Category does not exist");
+					}
+				}
+				return null;
+			});
 		} catch (SQLException e) {
 			LoggingController.log(Level.INFO,
 					"Unable to return Category for id " + id + ": " + e.getMessage());
 			id = DatabaseItem.UNASSIGNED_ID;
 		}
-		return Category.createInstance(id, name, description);
+		final int categoryId = id;
+		return CATEGORIES.get(categoryId, () ->
+				Category.createInstance(categoryId, values[0], values[1]));
 	}
 
 	public static ArrayList<Category> getCategories() {
 		ArrayList<Category> ret = new ArrayList<>();
 		try {
-			ResultSet result = connection.createStatement().executeQuery("SELECT * FROM CATEGORY;");
-			if (!result.isClosed()) {
-				while (result.next()) {
-					ret.add(Category.createInstance(
-							result.getInt("ID"),
-							result.getString("NAME"),
-							result.getString("DESCRIPTION")));
+			ConnectionManager.read(connection -> {
+				try (ResultSet result = StatementRegistry.prepare(
+						connection, SELECT_CATEGORIES).executeQuery()) {
+					while (result.next()) {
+						final int id = result.getInt("ID");
+						final String name = result.getString("NAME");
+						final String description = result.getString("DESCRIPTION");
+						ret.add(CATEGORIES.get(id, () ->
+								Category.createInstance(id, name, description)));
+					}
 				}
-			}
+				return null;
+			});
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
 		return ret;
 	}
 
+	/**
+	 * Registers a {@link SeriesListener SeriesListener}, that is notified after
+	 * every committed change of the series or the alarms.
+	 * @param listener the listener
+	 */
+	public static void addSeriesListener(final SeriesListener listener) {
+		LISTENERS.add(listener);
+	}
+
+	public static void removeSeriesListener(final SeriesListener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * Stores the next {@link Alarm Alarms} due at or after the given time, if
+	 * they have never been stored.
+	 * @param now the current time in milliseconds
+	 * @throws SQLException
+	 */
+	public static void buildNextAlarms(final long now) throws SQLException {
+		final int amount = AlarmTable.build(now);
+		if (amount > 0) {
+			LoggingController.log(Level.FINE, "Stored " + amount + " next alarms.");
+		}
+	}
+
+	/**
+	 * Advances a page of the stored next {@link Alarm Alarms}, that are due
+	 * before the given time, and returns the alarms missed in between.
+	 * @param from the time in milliseconds, before which missed alarms are
+	 * 		skipped without being returned
+	 * @param now the current time in milliseconds
+	 * @param amount the maximal amount of advanced alarms
+	 * @param limit the maximal amount of returned alarms, the others are only
+	 * 		counted
+	 * @return the missed alarms or null, if no stored alarm has been due
+	 * @throws SQLException
+	 */
+	public static MissedAlarms replayAlarms(final long from, final long now,
+			final int amount, final int limit) throws SQLException {
+		return AlarmTable.replay(from, now, amount, limit);
+	}
+
+	/**
+	 * @return the time in milliseconds, up to which {@link Alarm Alarms} have
+	 * 		been raised, or null, if it has never been stored
+	 * @throws SQLException
+	 */
+	public static Long getAlarmsSeenUntil() throws SQLException {
+		return AlarmTable.getLastSeen();
+	}
+
+	/**
+	 * @param time the time in milliseconds, up to which {@link Alarm Alarms}
+	 * 		have been raised
+	 * @throws SQLException
+	 */
+	public static void setAlarmsSeenUntil(final long time) throws SQLException {
+		AlarmTable.setLastSeen(time);
+	}
+
+	/**
+	 * Returns the earliest stored next {@link Alarm Alarms} due after the
+	 * given time. Alarms due at the same time as the last one are included,
+	 * so fewer alarms than requested are only returned, if there are no more.
+	 * @param after the exclusive start in milliseconds
+	 * @param amount the amount of alarms
+	 * @return the alarms ordered by their due date
+	 * @throws SQLException
+	 */
+	public static List<Alarm> getNextAlarms(final long after, final int amount)
+			throws SQLException {
+		return AlarmTable.getAlarms(after, amount);
+	}
+
+	/**
+	 * Returns the stored next {@link Alarm Alarms} of the given
+	 * {@link Series Series}, that are due up to the given time.
+	 * @param series the series
+	 * @param until the inclusive end in milliseconds
+	 * @return the alarms
+	 * @throws SQLException
+	 */
+	public static List<Alarm> getNextAlarms(final List<Series> series, final long until)
+			throws SQLException {
+		if (series.isEmpty()) {
+			return new ArrayList<>();
+		}
+		int firstId = Integer.MAX_VALUE;
+		int lastId = Integer.MIN_VALUE;
+		for (final Series s : series) {
+			firstId = Math.min(firstId, s.getAppointmentId());
+			lastId = Math.max(lastId, s.getAppointmentId());
+		}
+		return AlarmTable.getAlarms(firstId, lastId, until);
+	}
+
+	/**
+	 * Returns whether the stored next {@link Alarm Alarms} have been added or
+	 * removed by another process since the last call. The changes of this
+	 * process are not reported, as its {@link SeriesListener SeriesListeners}
+	 * are notified of them.
+	 * @return whether the stored next alarms have been changed elsewhere
+	 * @throws SQLException
+	 */
+	public static boolean haveNextAlarmsChangedElsewhere() throws SQLException {
+		return AlarmTable.isChangedElsewhere();
+	}
+
+	/**
+	 * @param alarm the {@link Alarm Alarm}
+	 * @return whether the alarm is still stored as the next alarm of its
+	 * 		appointment
+	 * @throws SQLException
+	 */
+	public static boolean isNextAlarm(final Alarm alarm) throws SQLException {
+		return AlarmTable.contains(alarm);
+	}
+
+	/**
+	 * Replaces the stored next {@link Alarm Alarm}, that has been raised, by
+	 * the alarm of the following occurrence.
+	 * @param alarm the raised alarm
+	 * @param now the current time in milliseconds
+	 * @return the next alarm or null, if there is none
+	 * @throws SQLException
+	 */
+	public static Alarm advanceAlarm(final Alarm alarm, final long now) throws SQLException {
+		return AlarmTable.advance(alarm, now);
+	}
+
 	public static Priority getPriorityById(int id) {
-		String name= "NONE";
-		final List<Period> alarmList = new ArrayList<>();
+		final Priority cached = PRIORITIES.get(id);
+		if (cached != null) {
+			return cached;
+		}
 		try {
-			ResultSet result = connection.createStatement().executeQuery(
-					"SELECT NAME FROM PRIORITY WHERE ID = " + id + ";");
-			if (result != null && !result.isClosed()) {
-				name = result.getString("NAME");
-				result.close();
-			} else {
+			final int priorityId = id;
+			final ArrayList<Priority> priorities = ConnectionManager.read(connection -> {
+				final PreparedStatement statement =
+						StatementRegistry.prepare(connection, SELECT_PRIORITY);
+				statement.setInt(1, priorityId);
+				try (ResultSet result = statement.executeQuery()) {
+					return DatabaseController.toPriorities(result);
+				}
+			});
+			if (priorities.isEmpty()) {
 				throw new SQLException("Priority does not exist");
 			}
-			result = connection.createStatement().executeQuery(
-					"SELECT P.ID, P.MINUTES, P.DAYS, P.MONTHS "
-					+ "FROM PRIORITY_PERIOD AS PP "
-					+ "JOIN PERIOD AS P ON PP.PERIOD_FK = P.ID "
-					+ "WHERE PP.PRIORITY_FK = " + id + ";");
-			while (result != null && !result.isClosed() && result.next()) {
-				alarmList.add(Period.createInstance(
-						result.getInt("ID"),
-						result.getInt("MINUTES"),
-						result.getInt("DAYS"),
-						result.getInt("MONTHS")));
-			}
-			result.close();
+			return priorities.get(0);
 		} catch (final SQLException e) {
 			LoggingController.log(Level.INFO,
 						"Unable to return Priority for id " + id
 						+ ": " + e.getMessage());
 			id = DatabaseItem.UNASSIGNED_ID;
 		}
-		return Priority.createInstance(id, name, alarmList);
+		return Priority.createInstance(id, "NONE", new ArrayList<>());
 	}
 
 	public static ArrayList<Priority> getPriorities() {
-		final ArrayList<Priority> ret = new ArrayList<>();
 		try {
-			final ResultSet priorities = connection.createStatement().executeQuery(
-					"SELECT * FROM PRIORITY;");
-			while (!priorities.isClosed() && priorities.next()) {
-				final int id = priorities.getInt("ID");
-				final ArrayList<Period> alarmList = new ArrayList<>();
-				final ResultSet alarms = connection.createStatement().executeQuery(
-						"SELECT P.ID, P.MINUTES, P.DAYS, P.MONTHS "
-						+ "FROM PRIORITY_PERIOD AS PP "
-						+ "JOIN PERIOD AS P ON PP.PERIOD_FK = P.ID "
-						+ "WHERE PP.PRIORITY_FK = " + id + ";");
-				while (alarms != null && !alarms.isClosed() && alarms.next()) {
-					alarmList.add(Period.createInstance(
-							alarms.getInt("ID"),
-							alarms.getInt("MINUTES"),
-							alarms.getInt("DAYS"),
-							alarms.getInt("MONTHS")));
+			return ConnectionManager.read(connection -> {
+				try (final ResultSet result = StatementRegistry.prepare(
+						connection, SELECT_PRIORITIES).executeQuery()) {
+					return DatabaseController.toPriorities(result);
 				}
-				ret.add(Priority.createInstance(
-						id,
-						priorities.getString("NAME"),
-						alarmList));
-			}
+			});
 		} catch (final SQLException e) {
 			e.printStackTrace();
 		}
-		return ret;
+		return new ArrayList<>();
 	}
 
 	/**
@@ -363,98 +780,88 @@ public abstract class DatabaseController {
 	 * @param priority the Priority
 	 */
 	public static void addPriority(final Priority priority) {
-		PreparedStatement statement = null;
-		Savepoint savepoint = null;
-		boolean success = true;
 		try {
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			if (priority.hasId()) {
-				statement = connection.prepareStatement(UPDATE_PRIORITY);
-				statement.setInt(2, priority.getId());
-			} else {
-				statement = connection.prepareStatement(INSERT_PRIORITY);
-			}
-			statement.setString(1, priority.getName());
-			statement.executeUpdate();
-			connection.commit();
-			if (!priority.hasId()) {
-				priority.initializeId(DatabaseController.getMaxId("PRIORITY"));
-			}
+			ConnectionManager.execute(connection -> {
+				final PreparedStatement statement;
+				if (priority.hasId()) {
+					statement = StatementRegistry.prepare(connection, UPDATE_PRIORITY);
+					statement.setInt(2, priority.getId());
+				} else {
+					statement = StatementRegistry.prepare(connection, INSERT_PRIORITY);
+				}
+				statement.setString(1, priority.getName());
+				statement.executeUpdate();
+				if (!priority.hasId()) {
+					priority.initializeId(DatabaseController.getGeneratedId(statement));
+				}
+			});
+			PRIORITIES.merge(priority, (cached, changed) -> {
+				final String name = changed.getName();
+				final List<Period> alarmList = new ArrayList<>(changed.getAlarmList());
+				DatabaseController.updateShared(() -> {
+					cached.setName(name);
+					cached.setAlarmList(alarmList);
+				});
+			});
 			LoggingController.log(Level.FINE, "Added Priority to Database.");
 		} catch (final SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Failed to add Priority to Database: " + e.getMessage());
-			success = false;
 			e.printStackTrace(System.err);
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (final SQLException ex) {
-					LoggingController.log(Level.SEVERE,
-							"Rollback failed: " + ex.getMessage());
+			return;
+		}
+		priority.getAlarmList().stream().forEach(DatabaseController::addPeriod);
+		try {
+			final boolean changed = AlarmTable.write(connection -> {
+				PreparedStatement statement =
+						StatementRegistry.prepare(connection, SELECT_PRIORITY_PERIODS);
+				statement.setInt(1, priority.getId());
+				final Set<Integer> oldPeriodIds = new HashSet<>();
+				try (final ResultSet result = statement.executeQuery()) {
+					while (result.next()) {
+						oldPeriodIds.add(result.getInt("PERIOD_FK"));
+					}
 				}
-			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
+				final Set<Integer> newPeriodIds = priority.getAlarmList().stream()
+						.map(Period::getId)
+						.collect(Collectors.toSet());
+				final Set<Integer> addedPeriodIds = new HashSet<>(newPeriodIds);
+				addedPeriodIds.removeAll(oldPeriodIds);
+				final Set<Integer> removedPeriodIds = new HashSet<>(oldPeriodIds);
+				removedPeriodIds.removeAll(newPeriodIds);
+				if (addedPeriodIds.isEmpty() && removedPeriodIds.isEmpty()) {
+					return false;
 				}
-			} catch (final SQLException e) {
-				System.out.println("recovering failed");
-				e.printStackTrace(System.err);
-			}
-		}
-		if (success) {
-			priority.getAlarmList().stream().forEach(DatabaseController::addPeriod);
-			try {
-				savepoint = connection.setSavepoint();
-				connection.setAutoCommit(false);
-				final int deleted = connection.createStatement().executeUpdate(
-						"DELETE FROM PRIORITY_PERIOD WHERE PRIORITY_FK = "
-							+ priority.getId()+ ";");
-				LoggingController.log(Level.FINE,
-						"Removed " + deleted
-							+ " Priority-Period-Links of \""
-							+ priority.getName() + "\".");
-				final Optional<String> values = priority.getAlarmList().stream()
-						.map(e -> "(" + e.getId() + ", " + e.getId() + ")") // FIXME: Vermutlich so nicht richtig!
-						.reduce((r, e) -> r += ", " + e);
-				if (values.isPresent()) {
-					statement = connection.prepareStatement(
-							"INSERT INTO PRIORITY_PERIOD "
-								+ "(PRIORITY_FK, PERIOD_FK) VALUES "
-								+ values.get() + ";");
+				// the links are added first, as removing the last link of a
+				// Period deletes it
+				statement = StatementRegistry.prepare(connection, INSERT_PRIORITY_PERIOD);
+				for (final int periodId : addedPeriodIds) {
+					statement.setInt(1, priority.getId());
+					statement.setInt(2, periodId);
 					statement.executeUpdate();
-					LoggingController.log(Level.FINE,
-							"Added Priority-Period-Links to Database.");
-				}
-				connection.commit();
-			} catch (final SQLException e) {
-				LoggingController.log(Level.WARNING,
-						"Failed to add Priority-Period-Links to Database: "
-							+ e.getMessage());
-				e.printStackTrace(System.err);
-				if (savepoint != null) {
-					try {
-						connection.rollback(savepoint);
-					} catch (final SQLException ex) {
-						LoggingController.log(Level.SEVERE,
-								"Rollback failed: " + ex.getMessage());
-					}
 				}
-			} finally {
-				try {
-					connection.setAutoCommit(true);
-					if (statement != null) {
-						statement.close();
-					}
-				} catch (final SQLException e) {
-					System.out.println("recovering failed");
-					e.printStackTrace(System.err);
+				statement = StatementRegistry.prepare(connection, DELETE_PRIORITY_PERIOD);
+				for (final int periodId : removedPeriodIds) {
+					statement.setInt(1, priority.getId());
+					statement.setInt(2, periodId);
+					statement.executeUpdate();
 				}
+				LoggingController.log(Level.FINE,
+						"Added " + addedPeriodIds.size() + " and removed "
+							+ removedPeriodIds.size() + " Priority-Period-Links of \""
+							+ priority.getName() + "\".");
+				AlarmTable.insertPriority(connection, priority.getId(), addedPeriodIds,
+						System.currentTimeMillis());
+				return true;
+			});
+			if (changed) {
+				LISTENERS.forEach(listener -> listener.alarmsChanged(priority.getId()));
 			}
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Failed to add Priority-Period-Links to Database: "
+						+ e.getMessage());
+			e.printStackTrace(System.err);
 		}
 	}
 
@@ -468,65 +875,48 @@ public abstract class DatabaseController {
 		if (period.hasId()) {
 			return;
 		}
-		PreparedStatement statement = null;
-		Savepoint savepoint = null;
 		try {
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			final ResultSet periods = connection.createStatement().executeQuery(
-					"SELECT * FROM PERIOD WHERE MONTHS = " + period.getMonths()
-						+ " AND DAYS = " + period.getDays()
-						+ " AND MINUTES = " + period.getMinutes());
-			final List<Integer> duplicatePeriods = new ArrayList<>();
-			while (!periods.isClosed() && periods.next()) {
-				final int id = periods.getInt("ID");
-				if (periods.isFirst()) {
-					LoggingController.log(Level.FINE,
-							"Period already exists in the Database.");
-					period.initializeId(id);
+			ConnectionManager.execute(connection -> {
+				final PreparedStatement selectStatement =
+						StatementRegistry.prepare(connection, SELECT_PERIOD);
+				selectStatement.setInt(1, period.getMinutes());
+				selectStatement.setInt(2, period.getDays());
+				selectStatement.setInt(3, period.getMonths());
+				final List<Integer> duplicatePeriods = new ArrayList<>();
+				try (final ResultSet periods = selectStatement.executeQuery()) {
+					while (periods.next()) {
+						final int id = periods.getInt("ID");
+						if (duplicatePeriods.isEmpty()) {
+							LoggingController.log(Level.FINE,
+									"Period already exists in the Database.");
+							period.initializeId(id);
+						}
+						duplicatePeriods.add(id);
+					}
 				}
-				duplicatePeriods.add(id);
-			}
-			if (duplicatePeriods.size() > 1) {
-				LoggingController.log(Level.WARNING,
-						"The Periods with the IDs "
-							+ String.join(
-								", ",
-								duplicatePeriods.toArray(new String[duplicatePeriods.size()])
-							+ " are identical."));
-			}
-			if (duplicatePeriods.size() == 0) {
-				statement = connection.prepareStatement(INSERT_PERIOD);
-				statement.setInt(1, period.getMinutes());
-				statement.setInt(2, period.getDays());
-				statement.setInt(3, period.getMonths());
-				statement.executeUpdate();
-				statement.close();
-				connection.commit();
-				period.initializeId(DatabaseController.getMaxId("PERIOD"));
-				LoggingController.log(Level.FINE, "Added Period to Database.");
-			}
+				if (duplicatePeriods.size() > 1) {
+					LoggingController.log(Level.WARNING,
+							"The Periods with the IDs "
+								+ duplicatePeriods.stream()
+									.map(String::valueOf)
+									.collect(Collectors.joining(", "))
+								+ " are identical.");
+				}
+				if (duplicatePeriods.size() == 0) {
+					final PreparedStatement statement =
+							StatementRegistry.prepare(connection, INSERT_PERIOD);
+					statement.setInt(1, period.getMinutes());
+					statement.setInt(2, period.getDays());
+					statement.setInt(3, period.getMonths());
+					statement.executeUpdate();
+					period.initializeId(DatabaseController.getGeneratedId(statement));
+					LoggingController.log(Level.FINE, "Added Period to Database.");
+				}
+			});
+			PERIODS.get(period.getId(), () -> period);
 		} catch (final SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Failed to add Period to Database: " + e.getMessage());
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (final SQLException ex) {
-					LoggingController.log(Level.SEVERE,
-							"Rollback failed: " + ex.getMessage());
-				}
-			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
-				}
-			} catch (final SQLException e) {
-				System.out.println("recovering failed");
-				e.printStackTrace(System.err);
-			}
 		}
 	}
 
@@ -535,23 +925,21 @@ public abstract class DatabaseController {
 	}
 
 	public static void removePriority(final Priority priority) {
-		PreparedStatement statement = null;
-		Savepoint savepoint = null;
 		try {
 			if (!priority.hasId()) {
 					throw new SQLException("Priority does not exist in the Database");
 			}
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			statement = connection.prepareStatement(DELETE_PRIORITY_PERIODS);
-			statement.setInt(1, priority.getId());
-			statement.executeUpdate();
-			statement.close();
-			statement = connection.prepareStatement(DELETE_PRIORITY);
-			statement.setInt(1, priority.getId());
-			final int amountRemoved = statement.executeUpdate();
-			statement.close();
-			connection.commit();
+			final int amountRemoved = AlarmTable.write(connection -> {
+				PreparedStatement statement =
+						StatementRegistry.prepare(connection, DELETE_PRIORITY_PERIODS);
+				statement.setInt(1, priority.getId());
+				statement.executeUpdate();
+				statement = StatementRegistry.prepare(connection, DELETE_PRIORITY);
+				statement.setInt(1, priority.getId());
+				return statement.executeUpdate();
+			});
+			PRIORITIES.remove(priority.getId());
+			LISTENERS.forEach(listener -> listener.alarmsChanged(priority.getId()));
 			if (amountRemoved == 1) {
 				LoggingController.log(Level.FINE,
 						"Removed 1 Priority from Database.");
@@ -562,24 +950,6 @@ public abstract class DatabaseController {
 		} catch (final SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Failed to remove Priority from Database: " + e.getMessage());
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (final SQLException ex) {
-					LoggingController.log(Level.SEVERE,
-							"Rollback failed: " + ex.getMessage());
-				}
-			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
-				}
-			} catch (final SQLException e) {
-				System.out.println("recovering failed");
-				e.printStackTrace(System.err);
-			}
 		}
 	}
 
@@ -588,41 +958,34 @@ public abstract class DatabaseController {
 	 * @param category the Category
 	 */
 	public static void addCategory(Category category) {
-		PreparedStatement statement = null;
-		Savepoint savepoint = null;
 		try {
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			if (category.hasId()) {
-				statement = connection.prepareStatement(UPDATE_CATEGORY);
-				statement.setInt(3, category.getId());
-			} else {
-				statement = connection.prepareStatement(INSERT_CATEGORY);
-			}
-			statement.setString(1, category.getName());
-			statement.setString(2,category.getDescription());
-			statement.executeUpdate();
-			statement.close();
-			connection.commit();
-			category.initializeId(DatabaseController.getMaxId("CATEGORY"));
+			ConnectionManager.execute(connection -> {
+				final PreparedStatement statement;
+				if (category.hasId()) {
+					statement = StatementRegistry.prepare(connection, UPDATE_CATEGORY);
+					statement.setInt(3, category.getId());
+				} else {
+					statement = StatementRegistry.prepare(connection, INSERT_CATEGORY);
+				}
+				statement.setString(1, category.getName());
+				statement.setString(2,category.getDescription());
+				statement.executeUpdate();
+				if (!category.hasId()) {
+					category.initializeId(DatabaseController.getGeneratedId(statement));
+				}
+			});
+			CATEGORIES.merge(category, (cached, changed) -> {
+				final String name = changed.getName();
+				final String description = changed.getDescription();
+				DatabaseController.updateShared(() -> {
+					cached.setName(name);
+					cached.setDescription(description);
+				});
+			});
 			LoggingController.log(Level.FINE, "Added Category to Database.");
 		} catch (SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Failed to add Category to Database: " + e.getMessage());
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (SQLException ex) {
-					LoggingController.log(Level.SEVERE, "Rollback failed: " + ex.getMessage());
-				}
-			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
-				}
-			} catch (SQLException e) {}
 		}
 	}
 
@@ -633,43 +996,171 @@ public abstract class DatabaseController {
 	}
 
 	public static void removeCategory(Category category) {
-		PreparedStatement statement = null;
-		Savepoint savepoint = null;
 		try {
 			if (!category.hasId()) {
 				throw new SQLException("Category does not exist in the Database");
 			}
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			statement = connection.prepareStatement(DELETE_CATEGORY);
-			statement.setInt(1, category.getId());
-			int amountRemoved = statement.executeUpdate();
-			statement.close();
-			connection.commit();
-			if (amountRemoved == 0) {
-				throw new SQLException("Category does not exist in the Database");
-			}
+			ConnectionManager.execute(connection -> {
+				final PreparedStatement statement =
+						StatementRegistry.prepare(connection, DELETE_CATEGORY);
+				statement.setInt(1, category.getId());
+				int amountRemoved = statement.executeUpdate();
+				if (amountRemoved == 0) {
+					throw new SQLException("Category does not exist in the Database");
+				}
+			});
+			CATEGORIES.remove(category.getId());
 			LoggingController.log(Level.FINE, "Removed Category from Database.");
 		} catch (SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Failed to remove Category from Database: " + e.getMessage());
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (SQLException ex) {
-					LoggingController.log(Level.SEVERE, "Rollback failed: " + ex.getMessage());
-				}
-			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
-				}
-			} catch (SQLException e) {}
 		}
 	}
 
+	/**
+	 * Asynchronous variant of {@link #addAppointments(List) addAppointments}.
+	 * @param appointments the Appointments
+	 * @return a Future, that completes once the Appointments have been added
+	 */
+	public static CompletableFuture<Void> addAppointmentsAsync(
+			final List<AppointmentGroup> appointments) {
+		return DatabaseExecutor.run(() -> DatabaseController.addAppointments(appointments));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #removeAppointment(AppointmentGroup)
+	 * removeAppointment}.
+	 * @param appointment the Appointment
+	 * @return a Future, that completes once the Appointment has been removed
+	 */
+	public static CompletableFuture<Void> removeAppointmentAsync(
+			final AppointmentGroup appointment) {
+		return DatabaseExecutor.run(() -> DatabaseController.removeAppointment(appointment));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getDayAppointments(GregorianCalendar)
+	 * getDayAppointments}.
+	 * @param date specifies the day
+	 * @return a Future for the list of all appointments sorted by starttime
+	 */
+	public static CompletableFuture<ArrayList<Appointment>> getDayAppointmentsAsync(
+			final GregorianCalendar date) {
+		final GregorianCalendar day = (GregorianCalendar)date.clone();
+		return DatabaseExecutor.supply(() -> DatabaseController.getDayAppointments(day));
+	}
+
+	/**
+	 * Asynchronous variant of
+	 * {@link #getAppointmentsBetween(GregorianCalendar, GregorianCalendar)
+	 * getAppointmentsBetween}.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @return a Future for the list of all appointments sorted by starttime
+	 */
+	public static CompletableFuture<ArrayList<Appointment>> getAppointmentsBetweenAsync(
+			final GregorianCalendar start, final GregorianCalendar end) {
+		final GregorianCalendar from = (GregorianCalendar)start.clone();
+		final GregorianCalendar to = (GregorianCalendar)end.clone();
+		return DatabaseExecutor.supply(() ->
+				DatabaseController.getAppointmentsBetween(from, to));
+	}
+
+	/**
+	 * Asynchronous variant of
+	 * {@link #getAppointmentsPerDay(GregorianCalendar, GregorianCalendar)
+	 * getAppointmentsPerDay}.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @return a Future for the appointments of each day sorted by starttime
+	 */
+	public static CompletableFuture<TreeMap<LocalDate, ArrayList<Appointment>>>
+			getAppointmentsPerDayAsync(final GregorianCalendar start,
+				final GregorianCalendar end) {
+		final GregorianCalendar from = (GregorianCalendar)start.clone();
+		final GregorianCalendar to = (GregorianCalendar)end.clone();
+		return DatabaseExecutor.supply(() ->
+				DatabaseController.getAppointmentsPerDay(from, to));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getPriorityAppointments(Priority)
+	 * getPriorityAppointments}.
+	 * @param priority the Priority
+	 * @return a Future for the AppointmentGroups of the Priority
+	 */
+	public static CompletableFuture<ArrayList<AppointmentGroup>> getPriorityAppointmentsAsync(
+			final Priority priority) {
+		return DatabaseExecutor.supply(() ->
+				DatabaseController.getPriorityAppointments(priority));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getCategoryAppointments(Category)
+	 * getCategoryAppointments}.
+	 * @param category the Category
+	 * @return a Future for the AppointmentGroups of the Category
+	 */
+	public static CompletableFuture<ArrayList<AppointmentGroup>> getCategoryAppointmentsAsync(
+			final Category category) {
+		return DatabaseExecutor.supply(() ->
+				DatabaseController.getCategoryAppointments(category));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getCategories() getCategories}.
+	 * @return a Future for all Categories
+	 */
+	public static CompletableFuture<ArrayList<Category>> getCategoriesAsync() {
+		return DatabaseExecutor.supply(DatabaseController::getCategories);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getPriorities() getPriorities}.
+	 * @return a Future for all Priorities
+	 */
+	public static CompletableFuture<ArrayList<Priority>> getPrioritiesAsync() {
+		return DatabaseExecutor.supply(DatabaseController::getPriorities);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #addPriorities(List) addPriorities}.
+	 * @param priorities the Priorities
+	 * @return a Future, that completes once the Priorities have been added
+	 */
+	public static CompletableFuture<Void> addPrioritiesAsync(final List<Priority> priorities) {
+		final List<Priority> copy = new ArrayList<>(priorities);
+		return DatabaseExecutor.run(() -> DatabaseController.addPriorities(copy));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #removePriority(Priority) removePriority}.
+	 * @param priority the Priority
+	 * @return a Future, that completes once the Priority has been removed
+	 */
+	public static CompletableFuture<Void> removePriorityAsync(final Priority priority) {
+		return DatabaseExecutor.run(() -> DatabaseController.removePriority(priority));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #addCategories(List) addCategories}.
+	 * @param categories the Categories
+	 * @return a Future, that completes once the Categories have been added
+	 */
+	public static CompletableFuture<Void> addCategoriesAsync(final List<Category> categories) {
+		final List<Category> copy = new ArrayList<>(categories);
+		return DatabaseExecutor.run(() -> DatabaseController.addCategories(copy));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #removeCategory(Category) removeCategory}.
+	 * @param category the Category
+	 * @return a Future, that completes once the Category has been removed
+	 */
+	public static CompletableFuture<Void> removeCategoryAsync(final Category category) {
+		return DatabaseExecutor.run(() -> DatabaseController.removeCategory(category));
+	}
+
 	/**
 	 * Executes a script with the given name, that is located in the SQL-folder
 	 * and has the extension ".sql". The name may contain subfolders but not its
@@ -677,131 +1168,306 @@ public abstract class DatabaseController {
 	 * @param script the name of the script to execute
 	 */
 	public static void runScript(String script) {
-		ArrayList<ResultSet> currentResults = new ArrayList<>();
-		Statement statement = null;
-		Savepoint savepoint = null;
 		try {
-			savepoint = connection.setSavepoint();
-			connection.setAutoCommit(false);
-			File file = new File("SQL/" + script + ".sql");
-			if (!file.exists()) {
-				throw new IOException(file.getAbsolutePath() + " does not exist");
-			}
-			LineNumberReader reader = new LineNumberReader(Files.newBufferedReader(file.toPath()));
-			StringBuffer command = new StringBuffer();
-			String line = null;
-			while((line = reader.readLine()) != null) {
-				line = line.replace('\n', ' ').replace('\t', ' ').replace('\r', ' ').trim();
-				if (!line.startsWith("--") && line.length() >= 1) {
-					command.append(line);
-					if (line.endsWith(";")) {
-						statement = connection.createStatement();
-						statement.execute(command.toString());
-						ResultSet resultSet = statement.getResultSet();
-						if (resultSet != null) {
-							currentResults.add(resultSet);
-						}
-						command = new StringBuffer();
-					} else {
-						command.append(' ');
-					}
+			List<String> commands = SchemaMigrator.readScript(script);
+			ConnectionManager.execute(connection -> {
+				final Statement statement = connection.createStatement();
+				for (String sql : commands) {
+					statement.execute(sql);
 				}
-			}
-			connection.commit();
-			results = currentResults;
+				statement.close();
+			});
 			LoggingController.log(Level.FINE, "Executed Script " + script + ".");
 		} catch (IOException | SQLException e) {
 			LoggingController.log(Level.WARNING,
 					"Executing Script " + script + " failed: " + e.getMessage());
-			if (savepoint != null) {
-				try {
-					connection.rollback(savepoint);
-				} catch (SQLException ex) {
-					LoggingController.log(Level.SEVERE, "Rollback failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns every {@link Series Series}, that has occurrences
+	 * intersecting the given range.
+	 * @param start the inclusive start of the range in milliseconds
+	 * @param end the exclusive end of the range in milliseconds
+	 * @return the series
+	 * @throws SQLException
+	 */
+	static ArrayList<Series> getSeriesBetween(long start, long end)
+			throws SQLException {
+		return ConnectionManager.read(connection -> {
+			final ArrayList<Series> series = new ArrayList<>();
+			final PreparedStatement statement;
+			if (SPAN_INDEX_ENABLED) {
+				statement = StatementRegistry.prepare(connection, SELECT_SERIES_BETWEEN_SPAN);
+				statement.setLong(1, end);
+				statement.setLong(2, start);
+				statement.setLong(3, end);
+				statement.setLong(4, start);
+			} else {
+				statement = StatementRegistry.prepare(connection, SELECT_SERIES_BETWEEN);
+				statement.setLong(1, end);
+				statement.setLong(2, start);
+			}
+			try (ResultSet result = statement.executeQuery()) {
+				while (result.next()) {
+					series.add(DatabaseController.toSeries(result));
 				}
 			}
-		} finally {
-			try {
-				connection.setAutoCommit(true);
-				if (statement != null) {
-					statement.close();
+			return series;
+		});
+	}
+
+	/**
+	 * Returns every {@link Series Series}, that has occurrences intersecting
+	 * the given range, from the latest snapshot of the
+	 * {@link SeriesIndex SeriesIndex} if it is loaded or from the database
+	 * otherwise.
+	 * @param from the inclusive start of the range in local minutes
+	 * @param to the exclusive end of the range in local minutes
+	 * @return the series
+	 * @throws SQLException
+	 */
+	public static List<Series> getLocalSeriesBetween(long from, long to) throws SQLException {
+		final SeriesIndex.Snapshot snapshot = SeriesIndex.snapshot();
+		return snapshot != null
+				? snapshot.getSeriesBetween(from, to)
+				: DatabaseController.getSeriesBetween(
+					EpochMinutes.toMillis(from), EpochMinutes.toMillis(to));
+	}
+
+	/**
+	 * Returns the {@link Series Series} of the Appointments within the given
+	 * range of IDs.
+	 * @param connection the connection to use
+	 * @param firstId the first ID
+	 * @param lastId the last ID
+	 * @return the series
+	 * @throws SQLException
+	 */
+	private static ArrayList<Series> getSeriesOfAppointments(Connection connection,
+			int firstId, int lastId) throws SQLException {
+		final ArrayList<Series> series = new ArrayList<>();
+		final PreparedStatement statement =
+				StatementRegistry.prepare(connection, SELECT_SERIES_OF_APPOINTMENTS);
+		statement.setInt(1, firstId);
+		statement.setInt(2, lastId);
+		try (ResultSet result = statement.executeQuery()) {
+			while (result.next()) {
+				series.add(DatabaseController.toSeries(result));
+			}
+		}
+		return series;
+	}
+
+	/**
+	 * Creates a {@link Series Series} from the current row of a
+	 * {@link java.sql.ResultSet ResultSet} of the APPOINTMENTS_VIEW.
+	 * @param result the ResultSet
+	 * @return the Series
+	 * @throws SQLException
+	 */
+	static Series toSeries(ResultSet result) throws SQLException {
+		final RecurrenceRule rule = new RecurrenceRule(
+				result.getInt("WEEKDAYS"),
+				result.getInt("MONTH_DAYS"),
+				result.getLong("NTH_WEEKDAYS"));
+		return new Series(
+				result.getInt("APPOINTMENT_ID"),
+				result.getInt("APPOINTMENT_GROUP_ID"),
+				result.getInt("PRIORITY_FK"),
+				result.getInt("CATEGORY_FK"),
+				result.getString("NAME"),
+				result.getString("DESCRIPTION"),
+				Recurrence.of(
+					result.getLong("START_DATE"),
+					result.getLong("END_DATE"),
+					result.getInt("REPETITION_MONTHS"),
+					result.getLong("REPETITION_MINUTES"),
+					result.getLong("REPETITION_END"),
+					rule));
+	}
+
+	/**
+	 * Creates the {@link Priority Priorities} of a {@link java.sql.ResultSet
+	 * ResultSet}, that joins every Priority with the {@link Period Periods} of
+	 * its alarms and is ordered by the ID of the Priority.
+	 * @param result the ResultSet
+	 * @return the Priorities
+	 * @throws SQLException
+	 */
+	private static ArrayList<Priority> toPriorities(ResultSet result)
+			throws SQLException {
+		final ArrayList<Priority> priorities = new ArrayList<>();
+		int priorityId = DatabaseItem.UNASSIGNED_ID;
+		String name = null;
+		ArrayList<Period> alarmList = null;
+		while (result.next()) {
+			final int id = result.getInt("ID");
+			if (alarmList == null || id != priorityId) {
+				if (alarmList != null) {
+					priorities.add(DatabaseController.toPriority(priorityId, name, alarmList));
 				}
-			} catch (SQLException e) {}
+				priorityId = id;
+				name = result.getString("NAME");
+				alarmList = new ArrayList<>();
+			}
+			final int periodId = result.getInt("PERIOD_ID");
+			if (!result.wasNull()) {
+				final int minutes = result.getInt("MINUTES");
+				final int days = result.getInt("DAYS");
+				final int months = result.getInt("MONTHS");
+				alarmList.add(PERIODS.get(periodId, () ->
+						Period.createInstance(periodId, minutes, days, months)));
+			}
+		}
+		if (alarmList != null) {
+			priorities.add(DatabaseController.toPriority(priorityId, name, alarmList));
+		}
+		return priorities;
+	}
+
+	/**
+	 * Returns the shared instance of the {@link Priority Priority} with the
+	 * given ID, creating it from the given values if it has not been loaded yet.
+	 * The alarms of an already loaded Priority are replaced by the read ones
+	 * on the JavaFX Application Thread.
+	 * @param id the ID of the Priority
+	 * @param name the name of the Priority
+	 * @param alarmList the alarms of the Priority
+	 * @return the Priority
+	 */
+	private static Priority toPriority(final int id, final String name,
+			final List<Period> alarmList) {
+		final Priority cached = PRIORITIES.get(id);
+		if (cached != null) {
+			if (!cached.getAlarmList().equals(alarmList)) {
+				DatabaseController.updateShared(() -> cached.setAlarmList(alarmList));
+			}
+			return cached;
+		}
+		return PRIORITIES.get(id, () -> Priority.createInstance(id, name, alarmList));
+	}
+
+	/**
+	 * Applies a change to a shared instance of the identity maps on the
+	 * JavaFX Application Thread, as its properties may be bound to the views.
+	 * Changes made on any other Thread are posted to it, so that they are
+	 * applied before the results of an asynchronous access are handed back.
+	 * Without a running toolkit, as in the headless daemon, the change is
+	 * applied directly.
+	 * @param change the change
+	 */
+	private static void updateShared(final Runnable change) {
+		if (Platform.isFxApplicationThread()) {
+			change.run();
+			return;
+		}
+		try {
+			Platform.runLater(change);
+		} catch (final IllegalStateException e) {
+			change.run();
 		}
 	}
 
 	/**
 	 * Returns the ID of the given {@link Duration Duration} from the database.
 	 * If there is none, it will be inserted first.
+	 * @param connection the connection of the running transaction
 	 * @param duration the duration to get the ID from
 	 * @return the ID of the duration
 	 * @throws SQLException
 	 */
-	private static int getDurationId(Duration duration) throws SQLException {
+	private static int getDurationId(Connection connection, Duration duration)
+			throws SQLException {
 		int durationMinutes = (duration.getMinutes() + duration.getHours() * 60);
-		int id = 0;
-		ResultSet result = connection.createStatement().executeQuery(
-				"SELECT ID FROM PERIOD " +
-				"WHERE MINUTES = " + durationMinutes + " AND " +
-				"DAYS = " + duration.getDays() + " AND " +
-				"MONTHS = " + duration.getMonths() + ";");
-		if (result.isClosed() || result.getInt("ID") == 0) {
-			connection.createStatement().executeUpdate(
-					"INSERT INTO PERIOD (MINUTES, DAYS, MONTHS) VALUES (" +
-					durationMinutes + ", " +
-					duration.getDays() + ", " +
-					duration.getMonths() + ");");
-			id = DatabaseController.getMaxId("PERIOD");
-		} else {
-			id = result.getInt("ID");
-		}
-		result.close();
-		return id;
+		PreparedStatement statement = StatementRegistry.prepare(connection, SELECT_PERIOD);
+		statement.setInt(1, durationMinutes);
+		statement.setInt(2, duration.getDays());
+		statement.setInt(3, duration.getMonths());
+		try (ResultSet result = statement.executeQuery()) {
+			if (result.next()) {
+				return result.getInt("ID");
+			}
+		}
+		statement = StatementRegistry.prepare(connection, INSERT_PERIOD);
+		statement.setInt(1, durationMinutes);
+		statement.setInt(2, duration.getDays());
+		statement.setInt(3, duration.getMonths());
+		statement.executeUpdate();
+		return DatabaseController.getGeneratedId(statement);
 	}
 
 	/**
 	 * Returns the ID of the circle-entity with the given parameters from the database.
 	 * If there is none, it will be inserted first.
+	 * @param connection the connection of the running transaction
 	 * @param durationId the foreign key of a {@link Duration Duration}
-	 * @param repetitionEnd the date at witch the circle terminates
+	 * @param repetitionEnd the date in milliseconds at witch the circle terminates,
+	 * 		or null if it does not
+	 * @param ruleId the foreign key of a {@link RecurrenceRule RecurrenceRule},
+	 * 		or null if the circle has none
 	 * @return the ID of the circle-entity
 	 * @throws SQLException
 	 */
-	private static int getCircleId(int durationId, GregorianCalendar repetitionEnd)
+	private static int getCircleId(Connection connection, int durationId,
+			Long repetitionEnd, Integer ruleId) throws SQLException {
+		PreparedStatement statement = StatementRegistry.prepare(connection, SELECT_CIRCLE);
+		statement.setInt(1, durationId);
+		statement.setObject(2, repetitionEnd);
+		statement.setObject(3, ruleId);
+		try (ResultSet result = statement.executeQuery()) {
+			if (result.next()) {
+				return result.getInt("ID");
+			}
+		}
+		statement = StatementRegistry.prepare(connection, INSERT_CIRCLE);
+		statement.setObject(1, repetitionEnd);
+		statement.setInt(2, durationId);
+		statement.setObject(3, ruleId);
+		statement.executeUpdate();
+		return DatabaseController.getGeneratedId(statement);
+	}
+
+	/**
+	 * Returns the ID of the given {@link RecurrenceRule RecurrenceRule} from the
+	 * database. If there is none, it will be inserted first.
+	 * @param connection the connection of the running transaction
+	 * @param rule the RecurrenceRule
+	 * @return the ID of the rule-entity
+	 * @throws SQLException
+	 */
+	private static int getRuleId(Connection connection, RecurrenceRule rule)
 			throws SQLException {
-		int id = 0;
-		ResultSet result = connection.createStatement().executeQuery(
-				"SELECT ID FROM CIRCLE " +
-				"WHERE PERIOD_FK = " + durationId + " AND " +
-				"END_DATE = " + repetitionEnd.getTimeInMillis());
-		if (result.isClosed() || result.getInt("ID") == 0) {
-			connection.createStatement().executeUpdate(
-					"INSERT INTO CIRCLE (END_DATE, PERIOD_FK) VALUES (" +
-					repetitionEnd.getTimeInMillis() + ", " +
-					durationId + ");");
-			id = DatabaseController.getMaxId("CIRCLE");
-		} else {
-			id = result.getInt("ID");
-		}
-		result.close();
-		return id;
-	}
-
-	/**
-	 * Returns the highest ID in the given table of the database.
-	 * @param table the table
-	 * @return the highest ID in the given table
+		PreparedStatement statement = StatementRegistry.prepare(connection, SELECT_RULE);
+		statement.setInt(1, rule.getWeekdays());
+		statement.setInt(2, rule.getMonthDays());
+		statement.setLong(3, rule.getNthWeekdays());
+		try (ResultSet result = statement.executeQuery()) {
+			if (result.next()) {
+				return result.getInt("ID");
+			}
+		}
+		statement = StatementRegistry.prepare(connection, INSERT_RULE);
+		statement.setInt(1, rule.getWeekdays());
+		statement.setInt(2, rule.getMonthDays());
+		statement.setLong(3, rule.getNthWeekdays());
+		statement.executeUpdate();
+		return DatabaseController.getGeneratedId(statement);
+	}
+
+	/**
+	 * Returns the ID, that has been generated by the last insert of the given
+	 * statement.
+	 * @param statement the statement
+	 * @return the generated ID
 	 * @throws SQLException
 	 */
-	private static int getMaxId(String table) throws SQLException {
-		ResultSet result = connection.createStatement().executeQuery(
-				"SELECT MAX(ID) AS MAX_ID " +
-				"FROM " + table + ";");
-		int id = 0;
-		if (!result.isClosed()) {
-			id = result.getInt("MAX_ID");
-			result.close();
+	private static int getGeneratedId(Statement statement) throws SQLException {
+		try (ResultSet result = statement.getGeneratedKeys()) {
+			if (!result.next()) {
+				throw new SQLException("No ID has been generated");
+			}
+			return result.getInt(1);
 		}
-		return id;
 	}
 }
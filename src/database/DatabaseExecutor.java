@@ -0,0 +1,116 @@
+package database;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import logging.LoggingController;
+
+/**
+ * Static Class, that runs accesses to the database on a small, bounded pool of
+ * daemon Threads, so that they never block the JavaFX application Thread.<br/>
+ * The returned {@link java.util.concurrent.CompletableFuture CompletableFutures}
+ * can be cancelled; cancelling a running access interrupts its Thread.
+ * @author Mario Schäper
+ */
+public abstract class DatabaseExecutor {
+	private static final int THREAD_COUNT = 3;
+	private static final int QUEUE_CAPACITY = 64;
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+	private static final ThreadFactory THREAD_FACTORY = runnable -> {
+		final Thread thread = new Thread(runnable,
+				"database-" + THREAD_NUMBER.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	};
+	private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(
+			THREAD_COUNT, THREAD_COUNT, 0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(QUEUE_CAPACITY), THREAD_FACTORY);
+
+	/**
+	 * {@link java.util.concurrent.CompletableFuture CompletableFuture}, that
+	 * interrupts the Thread running it when it is cancelled.
+	 * @param <T> the type of the result
+	 */
+	private static final class Operation<T> extends CompletableFuture<T> {
+		private volatile Future<?> future;
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			final boolean cancelled = super.cancel(mayInterruptIfRunning);
+			final Future<?> future = this.future;
+			if (future != null) {
+				future.cancel(mayInterruptIfRunning);
+			}
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Executes the given access on the database Threads.
+	 * @param access the access
+	 * @return a Future for the result of the access
+	 */
+	public static <T> CompletableFuture<T> supply(final Supplier<T> access) {
+		final Operation<T> operation = new Operation<>();
+		try {
+			operation.future = EXECUTOR.submit(() -> {
+				if (operation.isDone()) {
+					return;
+				}
+				try {
+					operation.complete(access.get());
+				} catch (final Throwable e) {
+					operation.completeExceptionally(e);
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			LoggingController.log(Level.WARNING,
+					"Database access rejected: " + e.getMessage());
+			operation.completeExceptionally(e);
+		}
+		return operation;
+	}
+
+	/**
+	 * Executes the given access on the database Threads.
+	 * @param access the access
+	 * @return a Future, that completes once the access is done
+	 */
+	public static CompletableFuture<Void> run(final Runnable access) {
+		return DatabaseExecutor.supply(() -> {
+			access.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Logs the failure of an access, unless the access has been cancelled.
+	 * Meant for the handlers given to
+	 * {@link java.util.concurrent.CompletableFuture#whenComplete whenComplete},
+	 * which restore their state if this returns true.
+	 * @param failure the failure of the access or null, if it succeeded
+	 * @param access a description of the access
+	 * @return whether the access has failed without being cancelled
+	 */
+	public static boolean logFailure(final Throwable failure, final String access) {
+		final Throwable cause = failure instanceof CompletionException
+				&& failure.getCause() != null
+			? failure.getCause()
+			: failure;
+		if (cause == null || cause instanceof CancellationException) {
+			return false;
+		}
+		LoggingController.log(Level.WARNING, access + " failed: " + cause);
+		return true;
+	}
+}
@@ -0,0 +1,205 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import database.appointment.Appointment;
+import database.appointment.Series;
+import database.category.Category;
+import database.priority.Priority;
+import logging.LoggingController;
+import util.EpochMinutes;
+
+/**
+ * Static Class, that finds the free time between the occurrences of the
+ * stored {@link Appointment Appointments}.<br/>
+ * The occurrences are merged by their start from an
+ * {@link OccurrenceSpliterator OccurrenceSpliterator}, while a single pass
+ * keeps the end of the busy time seen so far. Every gap is cut to the working
+ * hours of its days. The pass stops as soon as enough slots are found, so
+ * that the next free slot is found without expanding the rest of the range.
+ * @author Mario Schäper
+ */
+public abstract class FreeSlotFinder {
+	/**
+	 * Immutable daily time span, to which free slots are restricted.
+	 */
+	public static final class WorkingHours {
+		/**
+		 * Working hours, that span the whole day.
+		 */
+		public static final WorkingHours ALL_DAY =
+				new WorkingHours(0, EpochMinutes.MINUTES_PER_DAY);
+		private final int start;
+		private final int end;
+
+		/**
+		 * Invokes an instance of the class {@link WorkingHours WorkingHours}.
+		 * @param start the inclusive start in minutes of the day
+		 * @param end the exclusive end in minutes of the day
+		 */
+		public WorkingHours(final int start, final int end) {
+			this.start = Math.max(0, start);
+			this.end = Math.min(EpochMinutes.MINUTES_PER_DAY, end);
+		}
+
+		public int getStart() {
+			return this.start;
+		}
+
+		public int getEnd() {
+			return this.end;
+		}
+	}
+
+	/**
+	 * Immutable free time span.
+	 */
+	public static final class Slot {
+		private final long start;
+		private final long end;
+
+		private Slot(final long start, final long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * @return the start in local minutes
+		 */
+		public long getStart() {
+			return this.start;
+		}
+
+		/**
+		 * @return the end in local minutes
+		 */
+		public long getEnd() {
+			return this.end;
+		}
+
+		public GregorianCalendar getStartDate() {
+			return EpochMinutes.toCalendar(this.start);
+		}
+
+		public GregorianCalendar getEndDate() {
+			return EpochMinutes.toCalendar(this.end);
+		}
+	}
+
+	/**
+	 * Returns the free slots within the given range and working hours, that
+	 * last at least the given amount of minutes.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @param minMinutes the minimal length of a slot in minutes
+	 * @param workingHours the daily working hours
+	 * @param maxSlots the maximal amount of returned slots
+	 * @return the slots ordered by their start or null, if the Appointments
+	 * 		could not be loaded
+	 * @see #findFreeSlots(GregorianCalendar, GregorianCalendar, long,
+	 * 		WorkingHours, int, Collection, Collection)
+	 */
+	public static ArrayList<Slot> findFreeSlots(final GregorianCalendar start,
+			final GregorianCalendar end, final long minMinutes,
+			final WorkingHours workingHours, final int maxSlots) {
+		return FreeSlotFinder.findFreeSlots(
+				start, end, minMinutes, workingHours, maxSlots, null, null);
+	}
+
+	/**
+	 * Returns the free slots within the given range and working hours, that
+	 * last at least the given amount of minutes. Only Appointments of the given
+	 * {@link Category Categories} and {@link Priority Priorities} occupy time.
+	 * @param start the inclusive start of the range
+	 * @param end the exclusive end of the range
+	 * @param minMinutes the minimal length of a slot in minutes
+	 * @param workingHours the daily working hours
+	 * @param maxSlots the maximal amount of returned slots
+	 * @param categories the occupying Categories or null for all
+	 * @param priorities the occupying Priorities or null for all
+	 * @return the slots ordered by their start or null, if the Appointments
+	 * 		could not be loaded
+	 */
+	public static ArrayList<Slot> findFreeSlots(final GregorianCalendar start,
+			final GregorianCalendar end, final long minMinutes,
+			final WorkingHours workingHours, final int maxSlots,
+			final Collection<Category> categories, final Collection<Priority> priorities) {
+		final long from = EpochMinutes.of(start);
+		final long to = EpochMinutes.of(end);
+		final List<Series> series;
+		try {
+			series = FreeSlotFinder.filter(
+					DatabaseController.getLocalSeriesBetween(from, to), categories, priorities);
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to find free slots: " + e.getMessage());
+			return null;
+		}
+		final ArrayList<Slot> slots = new ArrayList<>();
+		final long minLength = Math.max(1, minMinutes);
+		final Iterator<Appointment> occurrences =
+				Spliterators.iterator(new OccurrenceSpliterator(series, from, to));
+		long free = from;
+		while (free < to && slots.size() < maxSlots && occurrences.hasNext()) {
+			final Appointment occurrence = occurrences.next();
+			FreeSlotFinder.addSlots(slots, free, Math.min(occurrence.getStart(), to),
+					minLength, workingHours, maxSlots);
+			free = Math.max(free, occurrence.getEnd());
+		}
+		FreeSlotFinder.addSlots(slots, free, to, minLength, workingHours, maxSlots);
+		return slots;
+	}
+
+	private static List<Series> filter(final List<Series> series,
+			final Collection<Category> categories, final Collection<Priority> priorities) {
+		if (categories == null && priorities == null) {
+			return series;
+		}
+		final Set<Integer> categoryIds = categories != null
+				? categories.stream().map(Category::getId).collect(Collectors.toSet())
+				: null;
+		final Set<Integer> priorityIds = priorities != null
+				? priorities.stream().map(Priority::getId).collect(Collectors.toSet())
+				: null;
+		return series.stream()
+				.filter(s -> categoryIds == null || categoryIds.contains(s.getCategoryId()))
+				.filter(s -> priorityIds == null || priorityIds.contains(s.getPriorityId()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Adds the parts of a gap within the working hours, that are long enough.
+	 * @param slots the found slots
+	 * @param start the start of the gap in local minutes
+	 * @param end the end of the gap in local minutes
+	 * @param minLength the minimal length of a slot in minutes
+	 * @param workingHours the daily working hours
+	 * @param maxSlots the maximal amount of slots
+	 */
+	private static void addSlots(final List<Slot> slots, final long start, final long end,
+			final long minLength, final WorkingHours workingHours, final int maxSlots) {
+		if (end - start < minLength || slots.size() >= maxSlots) {
+			return;
+		}
+		if (workingHours.start == 0 && workingHours.end == EpochMinutes.MINUTES_PER_DAY) {
+			slots.add(new Slot(start, end));
+			return;
+		}
+		for (long day = EpochMinutes.getEpochDay(start) * EpochMinutes.MINUTES_PER_DAY;
+				day < end && slots.size() < maxSlots; day += EpochMinutes.MINUTES_PER_DAY) {
+			final long slotStart = Math.max(start, day + workingHours.start);
+			final long slotEnd = Math.min(end, day + workingHours.end);
+			if (slotEnd - slotStart >= minLength) {
+				slots.add(new Slot(slotStart, slotEnd));
+			}
+		}
+	}
+}
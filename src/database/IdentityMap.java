@@ -0,0 +1,76 @@
+package database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Map, that holds a single instance of every {@link DatabaseItem DatabaseItem}
+ * of a type by its ID, so that repeated loads of an entity share one instance
+ * instead of querying and creating it again.
+ * @author Mario Schäper
+ * @param <T> the type of the DatabaseItems
+ */
+final class IdentityMap<T extends DatabaseItem> {
+	private final Map<Integer, T> items = new ConcurrentHashMap<>();
+
+	/**
+	 * @param id the ID of the DatabaseItem
+	 * @return the instance with the given ID or null, if there is none
+	 */
+	T get(final int id) {
+		return this.items.get(id);
+	}
+
+	/**
+	 * Returns the instance with the given ID, creating and adding it if there
+	 * is none yet.<br/>
+	 * The factory is not invoked while the map is locked, so it may load
+	 * further DatabaseItems itself.
+	 * @param id the ID of the DatabaseItem
+	 * @param factory creates the DatabaseItem
+	 * @return the instance with the given ID
+	 */
+	T get(final int id, final Supplier<T> factory) {
+		final T item = this.items.get(id);
+		if (item != null) {
+			return item;
+		}
+		final T created = factory.get();
+		if (!created.hasId()) {
+			return created;
+		}
+		final T existing = this.items.putIfAbsent(id, created);
+		return existing != null ? existing : created;
+	}
+
+	/**
+	 * Adds the DatabaseItem. If there already is an instance with its ID, that
+	 * instance is kept and updated with the values of the given DatabaseItem,
+	 * so that everyone holding it keeps the shared and current instance.
+	 * DatabaseItems without an ID are ignored.
+	 * @param item the DatabaseItem
+	 * @param update copies the values of the second DatabaseItem to the first
+	 * @return the shared instance
+	 */
+	T merge(final T item, final BiConsumer<T, T> update) {
+		if (!item.hasId()) {
+			return item;
+		}
+		final T existing = this.items.putIfAbsent(item.getId(), item);
+		if (existing == null || existing == item) {
+			return item;
+		}
+		update.accept(existing, item);
+		return existing;
+	}
+
+	/**
+	 * Removes the instance with the given ID.
+	 * @param id the ID of the DatabaseItem
+	 */
+	void remove(final int id) {
+		this.items.remove(id);
+	}
+}
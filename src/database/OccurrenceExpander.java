@@ -0,0 +1,98 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import database.appointment.Appointment;
+import database.appointment.Series;
+
+/**
+ * Static Class, that expands the occurrences of many {@link Series Series}
+ * within a range in parallel.<br/>
+ * The series are halved recursively on the common
+ * {@link java.util.concurrent.ForkJoinPool ForkJoinPool} until a part is small
+ * enough to be merged sequentially by an
+ * {@link OccurrenceSpliterator OccurrenceSpliterator}. The sorted results of
+ * both halves are then merged pairwise, which makes up a k-way merge over all
+ * parts. Small inputs are expanded on the calling Thread.
+ * @author Mario Schäper
+ */
+abstract class OccurrenceExpander {
+	private static final int SEQUENTIAL_THRESHOLD = 64;
+
+	/**
+	 * Part of the series, that is expanded by a single task.
+	 */
+	private static final class ExpansionTask extends RecursiveTask<ArrayList<Appointment>> {
+		private static final long serialVersionUID = 1L;
+		private final List<Series> series;
+		private final long from;
+		private final long to;
+
+		private ExpansionTask(final List<Series> series, final long from, final long to) {
+			this.series = series;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected ArrayList<Appointment> compute() {
+			if (this.series.size() <= SEQUENTIAL_THRESHOLD) {
+				return OccurrenceExpander.expandSequential(this.series, this.from, this.to);
+			}
+			final int middle = this.series.size() / 2;
+			final ExpansionTask first =
+					new ExpansionTask(this.series.subList(0, middle), this.from, this.to);
+			final ExpansionTask second = new ExpansionTask(
+					this.series.subList(middle, this.series.size()), this.from, this.to);
+			first.fork();
+			final ArrayList<Appointment> secondResult = second.compute();
+			return OccurrenceExpander.merge(first.join(), secondResult);
+		}
+	}
+
+	/**
+	 * Returns all occurrences of the given series intersecting the range.
+	 * @param series the series
+	 * @param from the inclusive start of the range in local minutes
+	 * @param to the exclusive end of the range in local minutes
+	 * @return the occurrences ordered by their start
+	 */
+	static ArrayList<Appointment> expand(final List<Series> series, final long from,
+			final long to) {
+		if (series.size() <= SEQUENTIAL_THRESHOLD
+				|| ForkJoinPool.getCommonPoolParallelism() < 2) {
+			return OccurrenceExpander.expandSequential(series, from, to);
+		}
+		return ForkJoinPool.commonPool().invoke(new ExpansionTask(series, from, to));
+	}
+
+	private static ArrayList<Appointment> expandSequential(final List<Series> series,
+			final long from, final long to) {
+		final ArrayList<Appointment> appointments = new ArrayList<>();
+		new OccurrenceSpliterator(series, from, to).forEachRemaining(appointments::add);
+		return appointments;
+	}
+
+	/**
+	 * Merges two lists ordered by the start of their occurrences.
+	 * @param first the first list
+	 * @param second the second list
+	 * @return the merged list
+	 */
+	private static ArrayList<Appointment> merge(final ArrayList<Appointment> first,
+			final ArrayList<Appointment> second) {
+		final ArrayList<Appointment> merged = new ArrayList<>(first.size() + second.size());
+		int i = 0;
+		int j = 0;
+		while (i < first.size() && j < second.size()) {
+			merged.add(first.get(i).getStart() <= second.get(j).getStart()
+					? first.get(i++)
+					: second.get(j++));
+		}
+		merged.addAll(first.subList(i, first.size()));
+		merged.addAll(second.subList(j, second.size()));
+		return merged;
+	}
+}
@@ -0,0 +1,192 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import database.appointment.Appointment;
+import database.appointment.Recurrence;
+import database.appointment.RecurrenceCursor;
+import database.appointment.Series;
+
+/**
+ * {@link java.util.Spliterator Spliterator}, that lazily merges the occurrences
+ * of several {@link Series Series} intersecting a range into a single sequence
+ * ordered by their start.<br/>
+ * Only a {@link RecurrenceCursor RecurrenceCursor} per series is held in a
+ * priority queue, so the memory used does not depend on the length of the
+ * range. Splitting divides the range of starts in the middle, which keeps the
+ * halves ordered relative to each other and gives each half only the series
+ * reaching into it. Handing out disjoint sets of series instead would leave
+ * halves, whose occurrences interleave, so that the stream could no longer be
+ * ordered by start.<br/>
+ * The size is estimated by the occurrence indices of the range in every series.
+ * @author Mario Schäper
+ */
+final class OccurrenceSpliterator implements Spliterator<Appointment> {
+	private static final Comparator<Appointment> ORDER =
+			Comparator.comparingLong(Appointment::getStart);
+	private static final long MIN_SPLIT_MINUTES = 24 * 60;
+	private final long from;
+	private final long to;
+	private List<Series> series;
+	private long minStart;
+	private PriorityQueue<Position> queue;
+	private long estimate = -1;
+
+	/**
+	 * Position of the traversal within a single series.
+	 */
+	private static final class Position {
+		private final Series series;
+		private final RecurrenceCursor cursor;
+
+		private Position(final Series series) {
+			this.series = series;
+			this.cursor = series.getRecurrence().cursor();
+		}
+	}
+
+	/**
+	 * Invokes an instance of the class
+	 * {@link OccurrenceSpliterator OccurrenceSpliterator}.
+	 * @param series the series, that intersect the range
+	 * @param from the inclusive start of the range in local minutes
+	 * @param to the exclusive end of the range in local minutes
+	 */
+	OccurrenceSpliterator(final List<Series> series, final long from, final long to) {
+		this(series, from, Long.MIN_VALUE, to);
+	}
+
+	/**
+	 * @param series the series, that intersect the range
+	 * @param from the inclusive start of the range in local minutes
+	 * @param minStart the earliest start of a passed occurrence in local minutes
+	 * @param to the exclusive end of the range in local minutes
+	 */
+	private OccurrenceSpliterator(final List<Series> series, final long from,
+			final long minStart, final long to) {
+		this.from = from;
+		this.to = to;
+		this.series = series;
+		this.minStart = minStart;
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super Appointment> action) {
+		if (this.queue == null) {
+			this.start();
+		}
+		final Position position = this.queue.poll();
+		if (position == null) {
+			return false;
+		}
+		final RecurrenceCursor cursor = position.cursor;
+		if (this.estimate > 0) {
+			this.estimate--;
+		}
+		action.accept(new Appointment(position.series.getSubject(),
+				position.series.getDescription(), cursor.getStart(), cursor.getEnd()));
+		if (cursor.next() && cursor.getStart() < this.to) {
+			this.queue.add(position);
+		}
+		return true;
+	}
+
+	/**
+	 * Splits the remaining range of starts in the middle, if the traversal
+	 * has not begun yet.
+	 * @return the spliterator for the first half or null, if the range is too
+	 * 		short or the traversal has already begun
+	 */
+	@Override
+	public Spliterator<Appointment> trySplit() {
+		final long lower = Math.max(this.from, this.minStart);
+		if (this.queue != null || this.series.size() < 2
+				|| this.to - lower < 2 * MIN_SPLIT_MINUTES) {
+			return null;
+		}
+		final long middle = lower + (this.to - lower) / 2;
+		final List<Series> first = new ArrayList<>();
+		final List<Series> second = new ArrayList<>();
+		for (final Series s : this.series) {
+			if (s.getRecurrence().getStart() < middle) {
+				first.add(s);
+			}
+			if (s.getRecurrence().getEnd() > middle) {
+				second.add(s);
+			}
+		}
+		final Spliterator<Appointment> prefix =
+				new OccurrenceSpliterator(first, this.from, this.minStart, middle);
+		this.series = second;
+		this.minStart = middle;
+		this.estimate = -1;
+		return prefix;
+	}
+
+	/**
+	 * Returns the amount of remaining occurrences. It is exact before the
+	 * traversal begins and then counted down.
+	 * @return the amount of remaining occurrences
+	 */
+	@Override
+	public long estimateSize() {
+		if (this.estimate < 0) {
+			long estimate = 0;
+			for (final Series s : this.series) {
+				estimate += this.count(s.getRecurrence());
+			}
+			this.estimate = estimate;
+		}
+		return this.estimate;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SORTED | NONNULL | IMMUTABLE;
+	}
+
+	@Override
+	public Comparator<? super Appointment> getComparator() {
+		return ORDER;
+	}
+
+	/**
+	 * Places a cursor on the first passed occurrence of every series.
+	 */
+	private void start() {
+		this.estimateSize();
+		this.queue = new PriorityQueue<>(Math.max(1, this.series.size()),
+				Comparator.comparingLong(position -> position.cursor.getStart()));
+		for (final Series s : this.series) {
+			final Position position = new Position(s);
+			final RecurrenceCursor cursor = position.cursor;
+			boolean valid = cursor.seekTo(this.minStart > this.from
+					? Math.max(this.from, this.minStart - 1 + s.getRecurrence().getLength())
+					: this.from);
+			while (valid && cursor.getStart() < this.minStart) {
+				valid = cursor.next();
+			}
+			if (valid && cursor.getStart() < this.to) {
+				this.queue.add(position);
+			}
+		}
+	}
+
+	/**
+	 * @param recurrence the recurrence of a series
+	 * @return the amount of occurrences of the series, that are passed
+	 */
+	private long count(final Recurrence recurrence) {
+		long first = recurrence.firstIndexEndingAfter(this.from);
+		if (this.minStart > this.from) {
+			first = Math.max(first, recurrence.firstIndexStartingAfter(this.minStart - 1));
+		}
+		final long last = Math.min(recurrence.firstIndexStartingAfter(this.to - 1),
+				recurrence.getOccurrenceCount());
+		return Math.max(0, last - first);
+	}
+}
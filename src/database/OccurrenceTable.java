@@ -0,0 +1,323 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import database.appointment.Appointment;
+import database.appointment.Series;
+import logging.LoggingController;
+import util.EpochMinutes;
+
+/**
+ * Static Class, that keeps the occurrences of all appointment series, which
+ * start within a rolling horizon around the current date, expanded in the
+ * table APPOINTMENT_OCCURRENCE.<br/>
+ * Ranges inside the horizon are then read by a plain range scan of the table.
+ * New series are expanded when they are added, deleted series lose their
+ * occurrences by a trigger and a daily background job moves the horizon along
+ * as time advances. The table is only worth its writes while the
+ * {@link SeriesIndex SeriesIndex} is not loaded, as it is not read otherwise.
+ * @author Mario Schäper
+ */
+abstract class OccurrenceTable {
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+	private static final int HORIZON_MONTHS_BEFORE = 12;
+	private static final int HORIZON_MONTHS_AFTER = 24;
+	private static final long MAINTENANCE_INTERVAL_HOURS = 24;
+	/**
+	 * The amount of maintenance intervals, after which a horizon, that has
+	 * not been moved, is no longer kept by any process.
+	 */
+	private static final int UNMAINTAINED_INTERVALS = 3;
+	private static final long CHUNK_DAYS = 30;
+	private static final String SELECT_HORIZON =
+			"SELECT START_DATE, END_DATE, MAX_LENGTH FROM OCCURRENCE_HORIZON WHERE ID = 1;";
+	private static final String REPLACE_HORIZON = "INSERT OR REPLACE INTO OCCURRENCE_HORIZON "
+			+ "(ID, START_DATE, END_DATE, MAX_LENGTH) VALUES (1, ?, ?, ?);";
+	private static final String UPDATE_HORIZON_END = "UPDATE OCCURRENCE_HORIZON "
+			+ "SET END_DATE = ? WHERE ID = 1;";
+	private static final String DELETE_HORIZON = "DELETE FROM OCCURRENCE_HORIZON;";
+	private static final String UPDATE_MAX_LENGTH = "UPDATE OCCURRENCE_HORIZON "
+			+ "SET MAX_LENGTH = MAX(MAX_LENGTH, ?) WHERE ID = 1;";
+	private static final String INSERT_OCCURRENCE = "INSERT INTO APPOINTMENT_OCCURRENCE "
+			+ "(APPOINTMENT_FK, START_DATE, END_DATE) VALUES (?, ?, ?);";
+	private static final String DELETE_OCCURRENCES = "DELETE FROM APPOINTMENT_OCCURRENCE;";
+	private static final String DELETE_OCCURRENCES_BEFORE =
+			"DELETE FROM APPOINTMENT_OCCURRENCE WHERE START_DATE < ?;";
+	private static final String SELECT_OCCURRENCES_BETWEEN =
+			"SELECT O.START_DATE, O.END_DATE, AG.NAME, AG.DESCRIPTION "
+			+ "FROM APPOINTMENT_OCCURRENCE AS O "
+			+ "JOIN APPOINTMENT_APPOINTMENT_GROUP AS AAG "
+				+ "ON AAG.APPOINTMENT_FK = O.APPOINTMENT_FK "
+			+ "JOIN APPOINTMENT_GROUP AS AG "
+				+ "ON AAG.APPOINTMENT_GROUP_FK = AG.ID "
+			+ "WHERE O.START_DATE > ? AND O.START_DATE < ? AND O.END_DATE > ? "
+			+ "ORDER BY O.START_DATE;";
+	private static ScheduledExecutorService maintenance;
+
+	/**
+	 * The range of starts, whose occurrences are stored in the table.
+	 */
+	private static final class Horizon {
+		private final long start;
+		private final long end;
+		private final long maxLength;
+
+		private Horizon(final long start, final long end, final long maxLength) {
+			this.start = start;
+			this.end = end;
+			this.maxLength = maxLength;
+		}
+
+		/**
+		 * @param from the inclusive start of the range in milliseconds
+		 * @param to the exclusive end of the range in milliseconds
+		 * @return whether every occurrence intersecting the range is stored
+		 */
+		private boolean covers(final long from, final long to) {
+			return from - this.maxLength >= this.start && to <= this.end;
+		}
+	}
+
+	/**
+	 * Starts the background job, that keeps the horizon around the current
+	 * date. The first run fills the table, if it has not been filled yet.
+	 */
+	static synchronized void startMaintenance() {
+		if (maintenance != null) {
+			return;
+		}
+		maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "occurrence-maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maintenance.scheduleWithFixedDelay(OccurrenceTable::maintain,
+				0, MAINTENANCE_INTERVAL_HOURS, TimeUnit.HOURS);
+	}
+
+	/**
+	 * Moves the horizon to the current date. Occurrences, that start before the
+	 * new horizon, are removed and those of its new part are expanded. If the
+	 * table has not been filled yet, all series are expanded.<br/>
+	 * The new part is expanded in chunks of {@value #CHUNK_DAYS} days, each
+	 * within its own transaction, so that the writer is never held for the
+	 * whole horizon. The end of the horizon follows the expanded chunks.
+	 * The horizon is only extended once it lags behind by more than a day.
+	 */
+	static void maintain() {
+		final GregorianCalendar start = new GregorianCalendar();
+		start.add(GregorianCalendar.MONTH, -HORIZON_MONTHS_BEFORE);
+		final GregorianCalendar end = new GregorianCalendar();
+		end.add(GregorianCalendar.MONTH, HORIZON_MONTHS_AFTER);
+		final long newStart = start.getTimeInMillis();
+		final long newEnd = end.getTimeInMillis();
+		try {
+			final Long from = ConnectionManager.write(connection -> {
+				final Horizon horizon = OccurrenceTable.getHorizon(connection);
+				if (horizon != null && horizon.end > newEnd - MILLIS_PER_DAY) {
+					return null;
+				}
+				final long oldEnd;
+				if (horizon == null) {
+					StatementRegistry.prepare(connection, DELETE_OCCURRENCES).executeUpdate();
+					oldEnd = newStart;
+				} else {
+					final PreparedStatement statement =
+							StatementRegistry.prepare(connection, DELETE_OCCURRENCES_BEFORE);
+					statement.setLong(1, newStart);
+					statement.executeUpdate();
+					oldEnd = Math.max(horizon.end, newStart);
+				}
+				final PreparedStatement statement =
+						StatementRegistry.prepare(connection, REPLACE_HORIZON);
+				statement.setLong(1, newStart);
+				statement.setLong(2, oldEnd);
+				statement.setLong(3, horizon != null ? horizon.maxLength : 0);
+				statement.executeUpdate();
+				return oldEnd;
+			});
+			if (from == null) {
+				return;
+			}
+			int amountAdded = 0;
+			for (long chunkStart = from; chunkStart < newEnd;) {
+				final long fromChunk = chunkStart;
+				final long toChunk = Math.min(chunkStart + CHUNK_DAYS * MILLIS_PER_DAY, newEnd);
+				amountAdded += ConnectionManager.write(connection -> {
+					final int amount = OccurrenceTable.insert(connection,
+							DatabaseController.getSeriesBetween(fromChunk, toChunk),
+							fromChunk, toChunk);
+					final PreparedStatement statement =
+							StatementRegistry.prepare(connection, UPDATE_HORIZON_END);
+					statement.setLong(1, toChunk);
+					statement.executeUpdate();
+					return amount;
+				});
+				chunkStart = toChunk;
+			}
+			if (amountAdded > 0) {
+				LoggingController.log(Level.FINE, "Extended occurrence horizon by "
+						+ amountAdded + " occurrences.");
+			}
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to maintain the occurrence horizon: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Empties the table and forgets its horizon, so that it is neither written
+	 * nor read until the maintenance fills it again. The table is only
+	 * cleared, if no process has moved its horizon for
+	 * {@value #UNMAINTAINED_INTERVALS} maintenance intervals, as another
+	 * process may still keep and read it.
+	 */
+	static void clearUnmaintained() {
+		final GregorianCalendar start = new GregorianCalendar();
+		start.add(GregorianCalendar.MONTH, -HORIZON_MONTHS_BEFORE);
+		final long staleStart = start.getTimeInMillis()
+				- UNMAINTAINED_INTERVALS * TimeUnit.HOURS.toMillis(MAINTENANCE_INTERVAL_HOURS);
+		try {
+			ConnectionManager.execute(connection -> {
+				final Horizon horizon = OccurrenceTable.getHorizon(connection);
+				if (horizon != null && horizon.start < staleStart) {
+					StatementRegistry.prepare(connection, DELETE_HORIZON).executeUpdate();
+					StatementRegistry.prepare(connection, DELETE_OCCURRENCES).executeUpdate();
+					LoggingController.log(Level.FINE, "Cleared the occurrence table.");
+				}
+			});
+		} catch (final SQLException e) {
+			LoggingController.log(Level.WARNING,
+					"Unable to clear the occurrence table: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stores the occurrences of the given series, that start within the
+	 * horizon. Does nothing, if the table has not been filled yet.
+	 * @param connection the connection of the running transaction
+	 * @param series the series
+	 * @return the amount of stored occurrences
+	 * @throws SQLException
+	 */
+	static int insert(final Connection connection, final List<Series> series)
+			throws SQLException {
+		final Horizon horizon = OccurrenceTable.getHorizon(connection);
+		if (horizon == null) {
+			return 0;
+		}
+		return OccurrenceTable.insert(connection, series, horizon.start, horizon.end);
+	}
+
+	/**
+	 * Returns all occurrences intersecting the given range, if they are all
+	 * stored in the table.
+	 * @param start the inclusive start of the range in milliseconds
+	 * @param end the exclusive end of the range in milliseconds
+	 * @return the occurrences sorted by their start or null, if the range is
+	 * 		not covered by the horizon
+	 * @throws SQLException
+	 */
+	static ArrayList<Appointment> getAppointmentsBetween(final long start, final long end)
+			throws SQLException {
+		return ConnectionManager.read(connection -> {
+			final Horizon horizon = OccurrenceTable.getHorizon(connection);
+			if (horizon == null || !horizon.covers(start, end)) {
+				return null;
+			}
+			final ArrayList<Appointment> appointments = new ArrayList<>();
+			final PreparedStatement statement =
+					StatementRegistry.prepare(connection, SELECT_OCCURRENCES_BETWEEN);
+			statement.setLong(1, start - horizon.maxLength);
+			statement.setLong(2, end);
+			statement.setLong(3, start);
+			try (final ResultSet result = statement.executeQuery()) {
+				while (result.next()) {
+					appointments.add(new Appointment(
+							result.getString("NAME"),
+							result.getString("DESCRIPTION"),
+							EpochMinutes.ofMillis(result.getLong("START_DATE")),
+							EpochMinutes.ofMillis(result.getLong("END_DATE"))));
+				}
+			}
+			return appointments;
+		});
+	}
+
+	/**
+	 * Stores the occurrences of the given series, that start within the given
+	 * range, and widens the maximal length of the horizon accordingly.
+	 * @param connection the connection of the running transaction
+	 * @param series the series
+	 * @param start the inclusive start of the range in milliseconds
+	 * @param end the exclusive end of the range in milliseconds
+	 * @return the amount of stored occurrences
+	 * @throws SQLException
+	 */
+	private static int insert(final Connection connection, final List<Series> series,
+			final long start, final long end) throws SQLException {
+		final PreparedStatement statement =
+				StatementRegistry.prepare(connection, INSERT_OCCURRENCE);
+		final long from = EpochMinutes.ofMillis(start) - EpochMinutes.MINUTES_PER_DAY;
+		final long to = EpochMinutes.ofMillis(end) + EpochMinutes.MINUTES_PER_DAY;
+		final int[] amount = {0};
+		final long[] maxLength = {0};
+		for (final Series s : series) {
+			final SQLException[] error = {null};
+			s.getRecurrence().forEachBetween(from, to, (occurrenceStart, occurrenceEnd) -> {
+				final long startMillis = EpochMinutes.toMillis(occurrenceStart);
+				final long endMillis = EpochMinutes.toMillis(occurrenceEnd);
+				if (error[0] != null || startMillis < start || startMillis >= end) {
+					return;
+				}
+				try {
+					statement.setInt(1, s.getAppointmentId());
+					statement.setLong(2, startMillis);
+					statement.setLong(3, endMillis);
+					statement.addBatch();
+				} catch (final SQLException e) {
+					error[0] = e;
+				}
+				amount[0]++;
+				maxLength[0] = Math.max(maxLength[0], endMillis - startMillis);
+			});
+			if (error[0] != null) {
+				throw error[0];
+			}
+		}
+		if (amount[0] > 0) {
+			statement.executeBatch();
+			final PreparedStatement update =
+					StatementRegistry.prepare(connection, UPDATE_MAX_LENGTH);
+			update.setLong(1, maxLength[0]);
+			update.executeUpdate();
+		}
+		return amount[0];
+	}
+
+	/**
+	 * @param connection the connection to use
+	 * @return the horizon or null, if the table has not been filled yet
+	 * @throws SQLException
+	 */
+	private static Horizon getHorizon(final Connection connection) throws SQLException {
+		try (final ResultSet result = StatementRegistry.prepare(
+				connection, SELECT_HORIZON).executeQuery()) {
+			return result.next()
+					? new Horizon(
+						result.getLong("START_DATE"),
+						result.getLong("END_DATE"),
+						result.getLong("MAX_LENGTH"))
+					: null;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import logging.LoggingController;
+
+/**
+ * Static Class, that brings the schema of the database up to date.<br/>
+ * The version of the schema is stored in the {@code user_version} of the
+ * database. Every migration consists of one script in the folder
+ * SQL/migration, named after the version it leads to, and is applied once,
+ * together with the increment of the version, within a single transaction.
+ * A released script is never edited, so that every database passes through
+ * the same schemas; changes are made by adding a new migration.
+ * @author Mario Schäper
+ */
+abstract class SchemaMigrator {
+	private static final String[] MIGRATIONS = {
+		"migration/V1__CREATE_SCHEMA",
+		"migration/V2__CREATE_INDEX",
+		"migration/V3__UPDATE_VIEW",
+		"migration/V4__CREATE_OCCURRENCE",
+		"migration/V5__CREATE_RULE",
+		"migration/V6__CREATE_SPAN",
+		"migration/V7__CREATE_ALARM",
+		"migration/V8__CREATE_ALARM_VERSION",
+	};
+
+	/**
+	 * Applies all migrations, that have not yet been applied to the database.
+	 * @throws SQLException if a migration fails
+	 * @throws IOException if a script of a migration could not be read
+	 */
+	static void migrate() throws SQLException, IOException {
+		final int version = ConnectionManager.read(SchemaMigrator::getVersion);
+		for (int i = version; i < MIGRATIONS.length; i++) {
+			final List<String> commands = SchemaMigrator.readScript(MIGRATIONS[i]);
+			final int newVersion = i + 1;
+			ConnectionManager.execute(connection -> {
+				try (final Statement statement = connection.createStatement()) {
+					for (final String command : commands) {
+						statement.execute(command);
+					}
+					statement.execute("PRAGMA user_version = " + newVersion + ";");
+				}
+			});
+			LoggingController.log(Level.FINE,
+					"Migrated database to version " + newVersion + ".");
+		}
+	}
+
+	/**
+	 * Returns the version of the schema of the database.
+	 * @param connection the connection to use
+	 * @return the version
+	 * @throws SQLException
+	 */
+	private static int getVersion(final Connection connection) throws SQLException {
+		try (final Statement statement = connection.createStatement();
+				final ResultSet result = statement.executeQuery("PRAGMA user_version;")) {
+			return result.next() ? result.getInt(1) : 0;
+		}
+	}
+
+	/**
+	 * Reads the commands of a script with the given name, that is located in
+	 * the SQL-folder and has the extension ".sql". The name may contain
+	 * subfolders but not its extionsion.
+	 * @param script the name of the script
+	 * @return the commands of the script
+	 * @throws IOException if the script could not be read
+	 */
+	static List<String> readScript(final String script) throws IOException {
+		final File file = new File("SQL/" + script + ".sql");
+		if (!file.exists()) {
+			throw new IOException(file.getAbsolutePath() + " does not exist");
+		}
+		final List<String> commands = new ArrayList<>();
+		try (final LineNumberReader reader =
+				new LineNumberReader(Files.newBufferedReader(file.toPath()))) {
+			StringBuffer command = new StringBuffer();
+			String line = null;
+			while((line = reader.readLine()) != null) {
+				line = line.replace('\n', ' ').replace('\t', ' ').replace('\r', ' ').trim();
+				if (!line.startsWith("--") && line.length() >= 1) {
+					command.append(line);
+					if (line.endsWith(";")) {
+						commands.add(command.toString());
+						command = new StringBuffer();
+					} else {
+						command.append(' ');
+					}
+				}
+			}
+		}
+		return commands;
+	}
+}
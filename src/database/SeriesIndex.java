@@ -0,0 +1,325 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import database.appointment.Series;
+
+/**
+ * Static Class, that keeps all {@link Series Series} of the database in memory,
+ * so that the series intersecting a range can be found without a query.<br/>
+ * The series are stored in an AVL-tree ordered by their start, whose nodes are
+ * augmented by the latest end within their subtree. Subtrees ending before a
+ * range are skipped, which finds the k intersecting series in
+ * {@code O(log n + k)} for the usual case of short series.<br/>
+ * The tree is persistent: its nodes are never modified, a change copies only
+ * the {@code O(log n)} nodes on the path to the root and shares the rest with
+ * the previous version. After every committed change the writer publishes a
+ * new {@link Snapshot Snapshot}, so readers query a consistent version
+ * without any lock and never wait for a writer.
+ * @author Mario Schäper
+ */
+abstract class SeriesIndex {
+	private static final Comparator<Series> ORDER = Comparator
+			.comparingLong((Series s) -> s.getRecurrence().getStart())
+			.thenComparingInt(Series::getAppointmentId);
+	private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
+	private static final AtomicReference<Snapshot> SNAPSHOT = new AtomicReference<>();
+	/**
+	 * The series of every AppointmentGroup, which is only accessed by writers.
+	 */
+	private static final Map<Integer, List<Series>> GROUPS = new HashMap<>();
+
+	/**
+	 * Immutable version of the index, that stays valid while newer versions
+	 * are published.
+	 */
+	static final class Snapshot {
+		private final Node root;
+		private final int size;
+
+		private Snapshot(final Node root, final int size) {
+			this.root = root;
+			this.size = size;
+		}
+
+		/**
+		 * Returns all series with occurrences intersecting the given range.
+		 * @param from the inclusive start of the range in local minutes
+		 * @param to the exclusive end of the range in local minutes
+		 * @return the series ordered by their start
+		 */
+		ArrayList<Series> getSeriesBetween(final long from, final long to) {
+			final ArrayList<Series> series = new ArrayList<>();
+			SeriesIndex.collect(this.root, from, to, series);
+			return series;
+		}
+
+		/**
+		 * @return the amount of series within this version
+		 */
+		int size() {
+			return this.size;
+		}
+	}
+
+	/**
+	 * Immutable node of the tree, that spans all occurrences of a series.
+	 */
+	private static final class Node {
+		private final Series series;
+		private final long start;
+		private final long end;
+		private final Node left;
+		private final Node right;
+		private final int height;
+		private final long maxEnd;
+
+		private Node(final Series series, final Node left, final Node right) {
+			this(series, series.getRecurrence().getStart(),
+					series.getRecurrence().getEnd(), left, right);
+		}
+
+		private Node(final Series series, final long start, final long end,
+				final Node left, final Node right) {
+			this.series = series;
+			this.start = start;
+			this.end = end;
+			this.left = left;
+			this.right = right;
+			this.height = 1 + Math.max(SeriesIndex.height(left), SeriesIndex.height(right));
+			long maxEnd = end;
+			if (left != null) {
+				maxEnd = Math.max(maxEnd, left.maxEnd);
+			}
+			if (right != null) {
+				maxEnd = Math.max(maxEnd, right.maxEnd);
+			}
+			this.maxEnd = maxEnd;
+		}
+
+		/**
+		 * @return a copy of the node with the given children
+		 */
+		private Node with(final Node left, final Node right) {
+			return new Node(this.series, this.start, this.end, left, right);
+		}
+
+		private int compareTo(final Node other) {
+			final int order = Long.compare(this.start, other.start);
+			return order != 0
+					? order
+					: Integer.compare(
+						this.series.getAppointmentId(),
+						other.series.getAppointmentId());
+		}
+	}
+
+	/**
+	 * Replaces the content of the index with the given series.
+	 * @param series all series of the database
+	 */
+	static void load(final List<Series> series) {
+		final List<Series> sorted = new ArrayList<>(series);
+		sorted.sort(ORDER);
+		WRITE_LOCK.lock();
+		try {
+			GROUPS.clear();
+			for (final Series s : sorted) {
+				GROUPS.computeIfAbsent(s.getAppointmentGroupId(), e -> new ArrayList<>()).add(s);
+			}
+			SNAPSHOT.set(new Snapshot(SeriesIndex.build(sorted, 0, sorted.size()),
+					sorted.size()));
+		} finally {
+			WRITE_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * @return whether the index has been loaded and can answer queries
+	 */
+	static boolean isLoaded() {
+		return SNAPSHOT.get() != null;
+	}
+
+	/**
+	 * Returns the latest published version of the index. Queries on the
+	 * returned version are consistent with each other, even if the index is
+	 * changed in between.
+	 * @return the version or null, if the index has not been loaded
+	 */
+	static Snapshot snapshot() {
+		return SNAPSHOT.get();
+	}
+
+	/**
+	 * Adds the given series, that have been committed to the database.
+	 * @param series the series
+	 */
+	static void add(final List<Series> series) {
+		WRITE_LOCK.lock();
+		try {
+			final Snapshot snapshot = SNAPSHOT.get();
+			if (snapshot == null) {
+				return;
+			}
+			Node root = snapshot.root;
+			for (final Series s : series) {
+				root = SeriesIndex.insert(root, new Node(s, null, null));
+				GROUPS.computeIfAbsent(s.getAppointmentGroupId(), e -> new ArrayList<>()).add(s);
+			}
+			SNAPSHOT.set(new Snapshot(root, snapshot.size + series.size()));
+		} finally {
+			WRITE_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Removes all series of an {@link database.appointment.AppointmentGroup
+	 * AppointmentGroup}, that has been deleted from the database.
+	 * @param appointmentGroupId the ID of the AppointmentGroup
+	 */
+	static void removeGroup(final int appointmentGroupId) {
+		WRITE_LOCK.lock();
+		try {
+			final Snapshot snapshot = SNAPSHOT.get();
+			final List<Series> series = GROUPS.remove(appointmentGroupId);
+			if (snapshot == null || series == null) {
+				return;
+			}
+			Node root = snapshot.root;
+			for (final Series s : series) {
+				root = SeriesIndex.remove(root, new Node(s, null, null));
+			}
+			SNAPSHOT.set(new Snapshot(root, snapshot.size - series.size()));
+		} finally {
+			WRITE_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Returns all series with occurrences intersecting the given range from
+	 * the latest version of the index.
+	 * @param from the inclusive start of the range in local minutes
+	 * @param to the exclusive end of the range in local minutes
+	 * @return the series ordered by their start
+	 */
+	static ArrayList<Series> getSeriesBetween(final long from, final long to) {
+		final Snapshot snapshot = SNAPSHOT.get();
+		return snapshot != null ? snapshot.getSeriesBetween(from, to) : new ArrayList<>();
+	}
+
+	/**
+	 * Builds a balanced tree from a part of the sorted series.
+	 * @param series the series ordered by {@link #ORDER ORDER}
+	 * @param from the first index of the part
+	 * @param to the index after the last one of the part
+	 * @return the root of the tree
+	 */
+	private static Node build(final List<Series> series, final int from, final int to) {
+		if (from >= to) {
+			return null;
+		}
+		final int middle = (from + to) >>> 1;
+		return new Node(series.get(middle),
+				SeriesIndex.build(series, from, middle),
+				SeriesIndex.build(series, middle + 1, to));
+	}
+
+	private static void collect(final Node node, final long from, final long to,
+			final List<Series> series) {
+		if (node == null || node.maxEnd <= from) {
+			return;
+		}
+		SeriesIndex.collect(node.left, from, to, series);
+		if (node.start >= to) {
+			return;
+		}
+		if (node.end > from) {
+			series.add(node.series);
+		}
+		SeriesIndex.collect(node.right, from, to, series);
+	}
+
+	private static Node insert(final Node node, final Node inserted) {
+		if (node == null) {
+			return inserted;
+		}
+		if (inserted.compareTo(node) < 0) {
+			return SeriesIndex.balance(node, SeriesIndex.insert(node.left, inserted), node.right);
+		}
+		return SeriesIndex.balance(node, node.left, SeriesIndex.insert(node.right, inserted));
+	}
+
+	private static Node remove(final Node node, final Node removed) {
+		if (node == null) {
+			return null;
+		}
+		final int order = removed.compareTo(node);
+		if (order < 0) {
+			return SeriesIndex.balance(node, SeriesIndex.remove(node.left, removed), node.right);
+		}
+		if (order > 0) {
+			return SeriesIndex.balance(node, node.left, SeriesIndex.remove(node.right, removed));
+		}
+		if (node.left == null) {
+			return node.right;
+		}
+		if (node.right == null) {
+			return node.left;
+		}
+		Node successor = node.right;
+		while (successor.left != null) {
+			successor = successor.left;
+		}
+		return SeriesIndex.balance(successor, node.left, SeriesIndex.removeFirst(node.right));
+	}
+
+	private static Node removeFirst(final Node node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		return SeriesIndex.balance(node, SeriesIndex.removeFirst(node.left), node.right);
+	}
+
+	/**
+	 * Returns a balanced copy of the node with the given children, whose
+	 * heights differ by at most two.
+	 * @param node the node
+	 * @param left the new left child
+	 * @param right the new right child
+	 * @return the root of the balanced subtree
+	 */
+	private static Node balance(final Node node, final Node left, final Node right) {
+		final int balance = SeriesIndex.height(left) - SeriesIndex.height(right);
+		if (balance > 1) {
+			final Node pivot = SeriesIndex.height(left.left) < SeriesIndex.height(left.right)
+					? SeriesIndex.rotateLeft(left, left.left, left.right)
+					: left;
+			return SeriesIndex.rotateRight(node, pivot, right);
+		}
+		if (balance < -1) {
+			final Node pivot = SeriesIndex.height(right.right) < SeriesIndex.height(right.left)
+					? SeriesIndex.rotateRight(right, right.left, right.right)
+					: right;
+			return SeriesIndex.rotateLeft(node, left, pivot);
+		}
+		return left == node.left && right == node.right ? node : node.with(left, right);
+	}
+
+	private static Node rotateLeft(final Node node, final Node left, final Node right) {
+		return right.with(node.with(left, right.left), right.right);
+	}
+
+	private static Node rotateRight(final Node node, final Node left, final Node right) {
+		return left.with(left.left, node.with(left.right, right));
+	}
+
+	private static int height(final Node node) {
+		return node != null ? node.height : 0;
+	}
+}
@@ -0,0 +1,33 @@
+package database;
+
+import java.util.List;
+import database.appointment.Series;
+
+/**
+ * Listener, that is notified by the {@link DatabaseController DatabaseController}
+ * after changes to the stored {@link Series Series} or to the alarms of the
+ * Priorities have been committed. The methods are called on the Thread, that
+ * made the change, and should return quickly.
+ * @author Mario Schäper
+ */
+public interface SeriesListener {
+
+	/**
+	 * Called after series have been added.
+	 * @param series the added series
+	 */
+	void seriesAdded(List<Series> series);
+
+	/**
+	 * Called after all series of an AppointmentGroup have been removed.
+	 * @param appointmentGroupId the ID of the AppointmentGroup
+	 */
+	void groupRemoved(int appointmentGroupId);
+
+	/**
+	 * Called after the alarms of a Priority have been changed or the Priority
+	 * has been removed.
+	 * @param priorityId the ID of the Priority
+	 */
+	void alarmsChanged(int priorityId);
+}
@@ -0,0 +1,65 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import logging.LoggingController;
+
+/**
+ * Static Class, that compiles each SQL-query only once per
+ * {@link java.sql.Connection Connection} and hands out the resulting
+ * {@link java.sql.PreparedStatement PreparedStatements} for reuse.<br/>
+ * A Connection is only ever used by one Thread at a time
+ * (see {@link ConnectionManager ConnectionManager}), so the Statements of a
+ * Connection need no further synchronization. Statements obtained here must
+ * not be closed by the caller, only their {@link java.sql.ResultSet ResultSets}.
+ * @author Mario Schäper
+ */
+abstract class StatementRegistry {
+	private static final Map<Connection, Map<String, PreparedStatement>> STATEMENTS =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the compiled Statement of the query for the given Connection,
+	 * compiling it if it is used for the first time.
+	 * @param connection the Connection
+	 * @param sql the query
+	 * @return the Statement
+	 * @throws SQLException if the query could not be compiled
+	 */
+	static PreparedStatement prepare(final Connection connection, final String sql)
+			throws SQLException {
+		final Map<String, PreparedStatement> statements =
+				STATEMENTS.computeIfAbsent(connection, e -> new HashMap<>());
+		PreparedStatement statement = statements.get(sql);
+		if (statement == null || statement.isClosed()) {
+			statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+			statements.put(sql, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Closes all Statements of the given Connection.
+	 * @param connection the Connection
+	 */
+	static void close(final Connection connection) {
+		final Map<String, PreparedStatement> statements = STATEMENTS.remove(connection);
+		if (statements == null) {
+			return;
+		}
+		for (final PreparedStatement statement : statements.values()) {
+			try {
+				statement.close();
+			} catch (final SQLException e) {
+				LoggingController.log(Level.WARNING,
+						"Unable to close Statement: " + e.getMessage());
+			}
+		}
+	}
+}
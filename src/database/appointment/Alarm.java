@@ -0,0 +1,122 @@
+package database.appointment;
+
+import java.util.GregorianCalendar;
+import util.Duration;
+import util.EpochMinutes;
+
+/**
+ * Immutable alarm for a single occurrence of a {@link Series Series}, that
+ * is due a {@link Duration Duration} of its Priority before the occurrence
+ * starts.<br/>
+ * All times are held as local minutes (see {@link util.EpochMinutes
+ * EpochMinutes}).
+ * @author Mario Schäper
+ */
+public final class Alarm {
+	private final Series series;
+	private final int periodId;
+	private final long start;
+	private final long end;
+	private final Duration before;
+	private final long time;
+
+	/**
+	 * Invokes an instance of the class {@link Alarm Alarm}.
+	 * @param series the series of the occurrence
+	 * @param periodId the ID of the alarm Period of the Priority
+	 * @param start the start of the occurrence
+	 * @param end the end of the occurrence
+	 * @param before the time between the alarm and the start of the occurrence
+	 */
+	public Alarm(final Series series, final int periodId, final long start, final long end,
+			final Duration before) {
+		this.series = series;
+		this.periodId = periodId;
+		this.start = start;
+		this.end = end;
+		this.before = before;
+		this.time = Duration.subtract(start, before);
+	}
+
+	public Series getSeries() {
+		return this.series;
+	}
+
+	/**
+	 * @return the ID of the alarm Period of the Priority
+	 */
+	public int getPeriodId() {
+		return this.periodId;
+	}
+
+	public String getSubject() {
+		return this.series.getSubject();
+	}
+
+	public String getDescription() {
+		return this.series.getDescription();
+	}
+
+	/**
+	 * @return the start of the occurrence
+	 */
+	public long getStart() {
+		return this.start;
+	}
+
+	/**
+	 * @return the end of the occurrence
+	 */
+	public long getEnd() {
+		return this.end;
+	}
+
+	/**
+	 * @return the time between the alarm and the start of the occurrence
+	 */
+	public Duration getBefore() {
+		return this.before;
+	}
+
+	/**
+	 * @return the time at which the alarm is due
+	 */
+	public long getTime() {
+		return this.time;
+	}
+
+	public GregorianCalendar getStartDate() {
+		return EpochMinutes.toCalendar(this.start);
+	}
+
+	public GregorianCalendar getEndDate() {
+		return EpochMinutes.toCalendar(this.end);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * this.series.getAppointmentId() + this.periodId)
+				+ Long.hashCode(this.start);
+	}
+
+	/**
+	 * Alarms are equal, if they belong to the same occurrence and alarm Period.
+	 */
+	@Override
+	public boolean equals(final Object other) {
+		return other instanceof Alarm
+				&& ((Alarm)other).series.getAppointmentId() == this.series.getAppointmentId()
+				&& ((Alarm)other).periodId == this.periodId
+				&& ((Alarm)other).start == this.start;
+	}
+
+	@Override
+	public String toString() {
+		return String.join(
+				"&",
+				"subject=" + this.getSubject(),
+				"start=" + this.start,
+				"before=" + this.before,
+				"time=" + this.time);
+	}
+}
@@ -1,17 +1,20 @@
 package database.appointment;
 
-import java.util.Calendar;
 import java.util.GregorianCalendar;
 import javafx.beans.property.StringProperty;
 import javafx.beans.property.SimpleStringProperty;
+import util.EpochMinutes;
 
 /**
- * Class representing an appointment.
+ * Class representing an appointment.<br/>
+ * Its start and end are held as local minutes (see
+ * {@link util.EpochMinutes EpochMinutes}), so that reading their fields needs
+ * no calendar computations.
  * @author Mario Schäper
  */
 public class Appointment {
-	private GregorianCalendar startDate;
-	private GregorianCalendar endDate;
+	private long start;
+	private long end;
 	private StringProperty subject;
 	private StringProperty description;
 
@@ -24,24 +27,63 @@ public class Appointment {
 	 */
 	public Appointment(String subject, String description,
 			GregorianCalendar startDate, GregorianCalendar endDate) {
+		this(subject, description, EpochMinutes.of(startDate), EpochMinutes.of(endDate));
+	}
+
+	/**
+	 * Invokes an instance of the class {@link Appointment Appointment}.
+	 * @param subject the subject
+	 * @param description a description
+	 * @param start the local minutes, at which the appointment beginns
+	 * @param end the local minutes, at which the appointment ends
+	 */
+	public Appointment(String subject, String description, long start, long end) {
 		this.subject = new SimpleStringProperty(subject);
 		this.description = new SimpleStringProperty(description);
-		this.startDate = startDate;
-		this.endDate = endDate;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * @return the local minutes, at which the {@link Appointment Appointment} beginns
+	 */
+	public long getStart() {
+		return this.start;
+	}
+
+	/**
+	 * @return the local minutes, at which the {@link Appointment Appointment} ends
+	 */
+	public long getEnd() {
+		return this.end;
+	}
+
+	/**
+	 * @return the date, at which the {@link Appointment Appointment} beginns
+	 */
+	public GregorianCalendar getStartDate() {
+		return EpochMinutes.toCalendar(this.start);
+	}
+
+	/**
+	 * @return the date, at which the {@link Appointment Appointment} ends
+	 */
+	public GregorianCalendar getEndDate() {
+		return EpochMinutes.toCalendar(this.end);
 	}
 
 	/**
 	 * @param startDate the new start date
 	 */
 	public void setStartDate(GregorianCalendar startDate) {
-		this.startDate = startDate;
+		this.start = EpochMinutes.of(startDate);
 	}
 
 	/**
 	 * @param endDate the new end date
 	 */
 	public void setEndDate(GregorianCalendar endDate) {
-		this.endDate = endDate;
+		this.end = EpochMinutes.of(endDate);
 	}
 
 	/**
@@ -91,7 +133,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} beginns.
 	 */
 	public short getStartYear() {
-		return (short)this.startDate.get(Calendar.YEAR);
+		return (short)EpochMinutes.getYear(this.start);
 	}
 
 	/**
@@ -99,7 +141,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} beginns.
 	 */
 	public short getStartMonth() {
-		return (short)this.startDate.get(Calendar.MONTH);
+		return (short)EpochMinutes.getMonth(this.start);
 	}
 
 	/**
@@ -107,7 +149,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} beginns.
 	 */
 	public short getStartDay() {
-		return (short)this.startDate.get(Calendar.DAY_OF_MONTH);
+		return (short)EpochMinutes.getDayOfMonth(this.start);
 	}
 
 	/**
@@ -115,7 +157,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} beginns.
 	 */
 	public short getStartHour() {
-		return (short)this.startDate.get(Calendar.HOUR_OF_DAY);
+		return (short)EpochMinutes.getHour(this.start);
 	}
 
 	/**
@@ -123,7 +165,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} beginns.
 	 */
 	public short getStartMinute() {
-		return (short)this.startDate.get(Calendar.MINUTE);
+		return (short)EpochMinutes.getMinute(this.start);
 	}
 
 	/**
@@ -131,7 +173,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} ends.
 	 */
 	public short getEndYear() {
-		return (short)this.endDate.get(Calendar.YEAR);
+		return (short)EpochMinutes.getYear(this.end);
 	}
 
 	/**
@@ -139,7 +181,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} ends.
 	 */
 	public short getEndMonth() {
-		return (short)this.endDate.get(Calendar.MONTH);
+		return (short)EpochMinutes.getMonth(this.end);
 	}
 
 	/**
@@ -147,7 +189,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} ends.
 	 */
 	public short getEndDay() {
-		return (short)this.endDate.get(Calendar.DAY_OF_MONTH);
+		return (short)EpochMinutes.getDayOfMonth(this.end);
 	}
 
 	/**
@@ -155,7 +197,7 @@ public class Appointment {
 	 * {@link Appointment Appointments} ends.
 	 */
 	public short getEndHour() {
-		return (short)this.endDate.get(Calendar.HOUR_OF_DAY);
+		return (short)EpochMinutes.getHour(this.end);
 	}
 
 	/**
@@ -163,6 +205,6 @@ public class Appointment {
 	 * {@link Appointment Appointments} ends.
 	 */
 	public short getEndMinute() {
-		return (short)this.endDate.get(Calendar.MINUTE);
+		return (short)EpochMinutes.getMinute(this.end);
 	}
 }
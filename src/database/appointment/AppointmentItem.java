@@ -2,43 +2,113 @@ package database.appointment;
 
 import java.util.GregorianCalendar;
 import util.Duration;
+import util.EpochMinutes;
 
 /**
  * A class to hold data.
- * Serves the purposes of readability and structure.
+ * Serves the purposes of readability and structure.<br/>
+ * All times are held as local minutes (see {@link util.EpochMinutes
+ * EpochMinutes}).
  * @author Mario Schäper
  */
 public class AppointmentItem {
-	private GregorianCalendar startDate;
-	private GregorianCalendar endDate;
+	/**
+	 * Value of the repetition end of items, whose repetition does not end.
+	 */
+	public static final long NO_REPETITION_END = Long.MIN_VALUE;
+	private long start;
+	private long end;
 	private Duration repetition;
-	private GregorianCalendar repetitionEnd;
+	private long repetitionEnd;
+	private RecurrenceRule rule;
 
 	public AppointmentItem(GregorianCalendar startDate, GregorianCalendar endDate,
 			Duration repetition, GregorianCalendar repetitionEnd) {
-		this.startDate = startDate;
-		this.endDate = endDate;
-		this.repetition = repetition;
-		this.repetitionEnd = repetitionEnd;
+		this(EpochMinutes.of(startDate), EpochMinutes.of(endDate), repetition,
+				repetitionEnd != null ? EpochMinutes.of(repetitionEnd) : NO_REPETITION_END);
 	}
 
 	public AppointmentItem(GregorianCalendar startDate, GregorianCalendar endDate) {
 		this(startDate, endDate, Duration.NONE, null);
 	}
 
+	public AppointmentItem(long start, long end, Duration repetition, long repetitionEnd) {
+		this(start, end, repetition, repetitionEnd, null);
+	}
+
+	/**
+	 * Invokes an instance of the class {@link AppointmentItem AppointmentItem},
+	 * that repeats on the days selected by a rule instead of a period.
+	 * A start on a day, that the rule does not select, is moved to the first
+	 * selected day after it.
+	 * @param start the start in local minutes
+	 * @param end the end in local minutes
+	 * @param repetition the period, which is ignored if there is a rule
+	 * @param repetitionEnd the local minutes of the repetition end or
+	 * 		{@link #NO_REPETITION_END NO_REPETITION_END}
+	 * @param rule the {@link RecurrenceRule RecurrenceRule} or null
+	 */
+	public AppointmentItem(long start, long end, Duration repetition, long repetitionEnd,
+			RecurrenceRule rule) {
+		this.rule = rule != null && !rule.isEmpty() ? rule : null;
+		this.start = this.rule != null ? this.rule.firstStart(start) : start;
+		this.end = end + this.start - start;
+		this.repetition = repetition;
+		this.repetitionEnd = repetitionEnd;
+	}
+
+	public long getStart() {
+		return this.start;
+	}
+
+	public long getEnd() {
+		return this.end;
+	}
+
+	public boolean hasRepetitionEnd() {
+		return this.repetitionEnd != NO_REPETITION_END;
+	}
+
+	/**
+	 * @return the local minutes of the repetition end or
+	 * 		{@link #NO_REPETITION_END NO_REPETITION_END}
+	 */
+	public long getRepetitionEndMinutes() {
+		return this.repetitionEnd;
+	}
+
+	/**
+	 * Returns the {@link Recurrence Recurrence} of the item. Items without a
+	 * repetition end occur once, as they do once stored in the database.
+	 * @return the Recurrence
+	 */
+	public Recurrence getRecurrence() {
+		return new Recurrence(this.start, this.end,
+				this.repetition.getMonths(), this.repetition.getRawMinutes(),
+				this.hasRepetitionEnd() ? this.repetitionEnd : this.start, this.rule);
+	}
+
 	public GregorianCalendar getStartDate() {
-		return this.startDate;
+		return EpochMinutes.toCalendar(this.start);
 	}
 
 	public GregorianCalendar getEndDate() {
-		return this.endDate;
+		return EpochMinutes.toCalendar(this.end);
 	}
 
 	public Duration getRepetition() {
 		return this.repetition;
 	}
 
+	/**
+	 * @return the {@link RecurrenceRule RecurrenceRule} or null, if the item
+	 * 		repeats by its period
+	 */
+	public RecurrenceRule getRule() {
+		return this.rule;
+	}
+
 	public GregorianCalendar getRepetitionEnd() {
-		return this.repetitionEnd;
+		return this.hasRepetitionEnd() ? EpochMinutes.toCalendar(this.repetitionEnd) : null;
 	}
 }
\ No newline at end of file
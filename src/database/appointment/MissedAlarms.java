@@ -0,0 +1,62 @@
+package database.appointment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable batch of {@link Alarm Alarms}, that have been due while no
+ * alarms were raised. Only the earliest of them are kept, the others are
+ * only counted.
+ * @author Mario Schäper
+ */
+public final class MissedAlarms {
+	private static final Comparator<Alarm> ORDER = Comparator.comparingLong(Alarm::getTime);
+	private final List<Alarm> alarms;
+	private final long count;
+
+	/**
+	 * Invokes an instance of the class {@link MissedAlarms MissedAlarms}.
+	 * @param alarms the kept alarms
+	 * @param count the amount of all missed alarms
+	 */
+	public MissedAlarms(final List<Alarm> alarms, final long count) {
+		final List<Alarm> sorted = new ArrayList<>(alarms);
+		sorted.sort(ORDER);
+		this.alarms = Collections.unmodifiableList(sorted);
+		this.count = count;
+	}
+
+	/**
+	 * @return the kept alarms ordered by their due date
+	 */
+	public List<Alarm> getAlarms() {
+		return this.alarms;
+	}
+
+	/**
+	 * @return the amount of all missed alarms
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	/**
+	 * Combines two batches, keeping only the earliest alarms of both.
+	 * @param other the other batch
+	 * @param limit the maximal amount of kept alarms
+	 * @return the combined batch
+	 */
+	public MissedAlarms merge(final MissedAlarms other, final int limit) {
+		final List<Alarm> merged = new ArrayList<>(this.alarms);
+		merged.addAll(other.alarms);
+		merged.sort(ORDER);
+		return new MissedAlarms(merged.subList(0, Math.min(limit, merged.size())),
+				this.count + other.count);
+	}
+}
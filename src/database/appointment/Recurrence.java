@@ -0,0 +1,280 @@
+package database.appointment;
+
+import util.EpochMinutes;
+
+/**
+ * Immutable description of a repeating {@link Appointment Appointment} series,
+ * that computes its occurrences in closed form instead of stepping through
+ * every repetition since the start of the series.<br/>
+ * All times are local wall-clock minutes since the epoch (see
+ * {@link util.EpochMinutes EpochMinutes}), so that repetitions keep their time
+ * of day across daylight saving changes.
+ * @author Mario Schäper
+ */
+public final class Recurrence {
+	/**
+	 * Average length of a gregorian month in minutes.
+	 * A cycle of 400 years has 146097 days and 4800 months.
+	 */
+	private static final double AVERAGE_MINUTES_PER_MONTH =
+			146097.0 * EpochMinutes.MINUTES_PER_DAY / 4800;
+
+	private final long start;
+	private final long length;
+	private final int periodMonths;
+	private final long periodMinutes;
+	private final long end;
+	private final long startMonth;
+	private final int startDayOfMonth;
+	private final int startMinuteOfDay;
+	private final RecurrenceRule rule;
+
+	/**
+	 * Consumer for the occurrences of a {@link Recurrence Recurrence}.
+	 */
+	@FunctionalInterface
+	public interface OccurrenceConsumer {
+		/**
+		 * @param start the start of the occurrence in local minutes
+		 * @param end the end of the occurrence in local minutes
+		 */
+		void accept(long start, long end);
+	}
+
+	/**
+	 * Invokes an instance of the class {@link Recurrence Recurrence}.
+	 * @param start the start of the first occurrence in local minutes
+	 * @param end the end of the first occurrence in local minutes
+	 * @param periodMonths the months between two occurrences
+	 * @param periodMinutes the minutes between two occurrences,
+	 * 		in addition to the months
+	 * @param repetitionEnd the latest start of an occurrence in local minutes
+	 */
+	public Recurrence(final long start, final long end, final int periodMonths,
+			final long periodMinutes, final long repetitionEnd) {
+		this(start, end, periodMonths, periodMinutes, repetitionEnd, null);
+	}
+
+	/**
+	 * Invokes an instance of the class {@link Recurrence Recurrence}, whose
+	 * occurrences after the first one fall on the days selected by a
+	 * {@link RecurrenceRule RecurrenceRule} instead of following a period.
+	 * A start on a day, that the rule does not select, is moved to the first
+	 * selected day after it.
+	 * @param start the start of the first occurrence in local minutes
+	 * @param end the end of the first occurrence in local minutes
+	 * @param periodMonths the months between two occurrences, if there is no rule
+	 * @param periodMinutes the minutes between two occurrences,
+	 * 		in addition to the months, if there is no rule
+	 * @param repetitionEnd the latest start of an occurrence in local minutes
+	 * @param rule the rule or null
+	 */
+	public Recurrence(final long start, final long end, final int periodMonths,
+			final long periodMinutes, final long repetitionEnd, final RecurrenceRule rule) {
+		this.rule = rule != null && !rule.isEmpty() ? rule : null;
+		this.start = this.rule != null ? this.rule.firstStart(start) : start;
+		this.length = Math.max(0, end - start);
+		this.periodMonths = this.rule == null ? Math.max(0, periodMonths) : 0;
+		this.periodMinutes = this.rule == null ? Math.max(0, periodMinutes) : 0;
+		this.end = this.isRepeating() ? Math.max(this.start, repetitionEnd) : this.start;
+		this.startMonth = EpochMinutes.getMonthIndex(this.start);
+		this.startDayOfMonth = EpochMinutes.getDayOfMonth(this.start);
+		this.startMinuteOfDay = EpochMinutes.getMinuteOfDay(this.start);
+	}
+
+	/**
+	 * Creates a {@link Recurrence Recurrence} from the values stored in the
+	 * {@link database.DatabaseController Database}.
+	 * @param startMillis the start of the first occurrence in milliseconds
+	 * @param endMillis the end of the first occurrence in milliseconds
+	 * @param periodMonths the months between two occurrences
+	 * @param periodMinutes the minutes between two occurrences
+	 * @param repetitionEndMillis the latest start of an occurrence in milliseconds
+	 * @return the Recurrence
+	 */
+	public static Recurrence of(final long startMillis, final long endMillis,
+			final int periodMonths, final long periodMinutes,
+			final long repetitionEndMillis) {
+		return Recurrence.of(startMillis, endMillis,
+				periodMonths, periodMinutes, repetitionEndMillis, null);
+	}
+
+	/**
+	 * Creates a {@link Recurrence Recurrence} from the values stored in the
+	 * {@link database.DatabaseController Database}.
+	 * @param startMillis the start of the first occurrence in milliseconds
+	 * @param endMillis the end of the first occurrence in milliseconds
+	 * @param periodMonths the months between two occurrences
+	 * @param periodMinutes the minutes between two occurrences
+	 * @param repetitionEndMillis the latest start of an occurrence in milliseconds
+	 * @param rule the rule selecting the days of the occurrences or null
+	 * @return the Recurrence
+	 */
+	public static Recurrence of(final long startMillis, final long endMillis,
+			final int periodMonths, final long periodMinutes,
+			final long repetitionEndMillis, final RecurrenceRule rule) {
+		return new Recurrence(
+				EpochMinutes.ofMillis(startMillis),
+				EpochMinutes.ofMillis(endMillis),
+				periodMonths,
+				periodMinutes,
+				EpochMinutes.ofMillis(repetitionEndMillis),
+				rule);
+	}
+
+	/**
+	 * @return whether the series has more than a single occurrence
+	 */
+	public boolean isRepeating() {
+		return this.rule != null || this.periodMonths != 0 || this.periodMinutes != 0;
+	}
+
+	/**
+	 * @return the rule selecting the days of the occurrences or null, if the
+	 * 		occurrences follow the period
+	 */
+	public RecurrenceRule getRule() {
+		return this.rule;
+	}
+
+	/**
+	 * @return the months between two occurrences
+	 */
+	public int getPeriodMonths() {
+		return this.periodMonths;
+	}
+
+	/**
+	 * @return the minutes between two occurrences, in addition to the months
+	 */
+	public long getPeriodMinutes() {
+		return this.periodMinutes;
+	}
+
+	/**
+	 * @return a new {@link RecurrenceCursor RecurrenceCursor} placed on the
+	 * 		first occurrence
+	 */
+	public RecurrenceCursor cursor() {
+		return new RecurrenceCursor(this);
+	}
+
+	/**
+	 * @return the start of the first occurrence in local minutes
+	 */
+	public long getStart() {
+		return this.start;
+	}
+
+	/**
+	 * @return the length of every occurrence in minutes
+	 */
+	public long getLength() {
+		return this.length;
+	}
+
+	/**
+	 * @return the end of the last occurrence in local minutes
+	 */
+	public long getEnd() {
+		return this.getOccurrenceStart(this.getOccurrenceCount() - 1) + this.length;
+	}
+
+	/**
+	 * Returns the start of the n-th occurrence, regardless of the end of the
+	 * repetition. Occurrences based on months are clamped to the last day of
+	 * shorter months, as {@link java.util.GregorianCalendar#add(int, int)
+	 * GregorianCalendar.add} would.
+	 * @param n the zero based index of the occurrence
+	 * @return the start of the occurrence in local minutes
+	 */
+	public long getOccurrenceStart(final long n) {
+		if (this.rule != null && n > 0) {
+			final long day = this.rule.nthDay(EpochMinutes.getEpochDay(this.start) + 1, n - 1);
+			return day != Long.MAX_VALUE
+					? day * EpochMinutes.MINUTES_PER_DAY + this.startMinuteOfDay
+					: Long.MAX_VALUE;
+		}
+		if (this.periodMonths == 0) {
+			return this.start + n * this.periodMinutes;
+		}
+		return EpochMinutes.ofMonthIndex(this.startMonth + n * this.periodMonths,
+				this.startDayOfMonth, this.startMinuteOfDay) + n * this.periodMinutes;
+	}
+
+	/**
+	 * @return the amount of occurrences of the series
+	 */
+	public long getOccurrenceCount() {
+		return this.isRepeating()
+				? this.firstIndexStartingAfter(this.end)
+				: 1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence ending after the given time.
+	 * @param time the time in local minutes
+	 * @return the index of the occurrence
+	 */
+	public long firstIndexEndingAfter(final long time) {
+		return this.firstIndexStartingAfter(time - this.length);
+	}
+
+	/**
+	 * Returns the index of the first occurrence starting after the given time.
+	 * The index is estimated by the average length of the period and then
+	 * corrected by the few occurrences the estimation can be off.
+	 * @param time the time in local minutes
+	 * @return the index of the occurrence
+	 */
+	public long firstIndexStartingAfter(final long time) {
+		if (!this.isRepeating() || this.start > time) {
+			return this.start > time ? 0 : 1;
+		}
+		if (this.rule != null) {
+			final long startDay = EpochMinutes.getEpochDay(this.start);
+			final long day = Math.floorDiv(time - this.startMinuteOfDay,
+					EpochMinutes.MINUTES_PER_DAY) + 1;
+			return 1 + this.rule.countDays(startDay + 1, Math.max(startDay + 1, day));
+		}
+		long n = Recurrence.estimateIndex(
+				time - this.start, this.periodMonths, this.periodMinutes);
+		while (n > 0 && this.getOccurrenceStart(n - 1) > time) {
+			n--;
+		}
+		while (this.getOccurrenceStart(n) <= time) {
+			n++;
+		}
+		return n;
+	}
+
+	/**
+	 * Passes every occurrence intersecting the given window to the consumer,
+	 * ordered by their start.
+	 * @param from the inclusive start of the window in local minutes
+	 * @param to the exclusive end of the window in local minutes
+	 * @param consumer the consumer
+	 */
+	public void forEachBetween(final long from, final long to,
+			final OccurrenceConsumer consumer) {
+		final RecurrenceCursor cursor = this.cursor();
+		for (boolean valid = cursor.seekTo(from);
+				valid && cursor.getStart() < to; valid = cursor.next()) {
+			consumer.accept(cursor.getStart(), cursor.getEnd());
+		}
+	}
+
+	/**
+	 * Estimates the index of the occurrence at the given offset from the start
+	 * of a series by the average length of its period.
+	 * @param offset the minutes since the start of the series
+	 * @param periodMonths the months between two occurrences
+	 * @param periodMinutes the minutes between two occurrences
+	 * @return the estimated index, which can be off by a few occurrences
+	 */
+	static long estimateIndex(final long offset, final int periodMonths,
+			final long periodMinutes) {
+		return Math.max(0, (long)Math.floor(offset
+				/ (periodMonths * AVERAGE_MINUTES_PER_MONTH + periodMinutes)));
+	}
+}
@@ -0,0 +1,170 @@
+package database.appointment;
+
+import util.EpochMinutes;
+
+/**
+ * Cursor over the occurrences of a {@link Recurrence Recurrence}.<br/>
+ * Every occurrence is derived from the start of the series and its index, so
+ * stepping to the next occurrence takes constant time without accumulating
+ * the day clamped at the end of a shorter month, and the cursor can be placed
+ * on any occurrence of a long series without walking the ones before it.
+ * Series with a {@link RecurrenceRule RecurrenceRule} step and seek by the
+ * bitsets of the days, that the rule selects per month.
+ * @author Mario Schäper
+ */
+public final class RecurrenceCursor {
+	private final long length;
+	private final int periodMonths;
+	private final long periodMinutes;
+	private final long count;
+	private final int startDayOfMonth;
+	private final int startMinuteOfDay;
+	private final long startMonth;
+	private final long firstStart;
+	private final RecurrenceRule rule;
+	private long index;
+	private long monthIndex;
+	private long minutes;
+	private long start;
+
+	/**
+	 * Invokes an instance of the class {@link RecurrenceCursor RecurrenceCursor},
+	 * that is placed on the first occurrence of the given series.
+	 * @param recurrence the series
+	 */
+	public RecurrenceCursor(final Recurrence recurrence) {
+		this(recurrence.getStart(), recurrence.getLength(), recurrence.getPeriodMonths(),
+				recurrence.getPeriodMinutes(), recurrence.getOccurrenceCount(),
+				recurrence.getRule());
+	}
+
+	private RecurrenceCursor(final long start, final long length, final int periodMonths,
+			final long periodMinutes, final long count, final RecurrenceRule rule) {
+		this.length = length;
+		this.periodMonths = periodMonths;
+		this.periodMinutes = periodMinutes;
+		this.count = count;
+		this.startDayOfMonth = EpochMinutes.getDayOfMonth(start);
+		this.startMinuteOfDay = EpochMinutes.getMinuteOfDay(start);
+		this.startMonth = EpochMinutes.getMonthIndex(start);
+		this.firstStart = start;
+		this.rule = rule;
+		this.seek(0);
+	}
+
+	/**
+	 * @return whether the cursor is placed on an occurrence of the series
+	 */
+	public boolean hasOccurrence() {
+		return this.index >= 0 && this.index < this.count;
+	}
+
+	/**
+	 * @return the zero based index of the current occurrence
+	 */
+	public long getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * @return the start of the current occurrence in local minutes
+	 */
+	public long getStart() {
+		return this.start;
+	}
+
+	/**
+	 * @return the end of the current occurrence in local minutes
+	 */
+	public long getEnd() {
+		return this.start + this.length;
+	}
+
+	/**
+	 * Moves the cursor to the next occurrence.
+	 * @return whether the cursor is still placed on an occurrence
+	 */
+	public boolean next() {
+		if (this.rule != null) {
+			return this.setDay(this.index + 1, this.start == Long.MAX_VALUE
+					? Long.MAX_VALUE
+					: this.rule.nextDay(EpochMinutes.getEpochDay(this.start) + 1));
+		}
+		this.index++;
+		this.monthIndex += this.periodMonths;
+		this.minutes += this.periodMinutes;
+		this.update();
+		return this.hasOccurrence();
+	}
+
+	/**
+	 * Moves the cursor to the n-th occurrence.
+	 * @param n the zero based index of the occurrence
+	 * @return whether the cursor is placed on an occurrence
+	 */
+	public boolean seek(final long n) {
+		if (this.rule != null && n > 0) {
+			return this.setDay(n, this.rule.nthDay(
+					EpochMinutes.getEpochDay(this.firstStart) + 1, n - 1));
+		}
+		this.index = n;
+		this.monthIndex = this.startMonth + n * this.periodMonths;
+		this.minutes = n * this.periodMinutes;
+		this.update();
+		return this.hasOccurrence();
+	}
+
+	/**
+	 * Moves the cursor to the first occurrence, that ends after the given time.
+	 * The index is estimated by the average length of the period and then
+	 * corrected by the few occurrences the estimation can be off.
+	 * @param time the time in local minutes
+	 * @return whether the cursor is placed on an occurrence
+	 */
+	public boolean seekTo(final long time) {
+		final long threshold = time - this.length;
+		if (this.firstStart > threshold
+				|| this.rule == null && this.periodMonths == 0 && this.periodMinutes == 0) {
+			return this.seek(this.firstStart > threshold ? 0 : 1);
+		}
+		if (this.rule != null) {
+			final long firstDay = EpochMinutes.getEpochDay(this.firstStart) + 1;
+			final long day = this.rule.nextDay(Math.max(firstDay, Math.floorDiv(
+					threshold - this.startMinuteOfDay, EpochMinutes.MINUTES_PER_DAY) + 1));
+			return this.setDay(day == Long.MAX_VALUE
+					? Long.MAX_VALUE
+					: 1 + this.rule.countDays(firstDay, day), day);
+		}
+		this.seek(Recurrence.estimateIndex(
+				threshold - this.firstStart, this.periodMonths, this.periodMinutes));
+		while (this.index > 0 && this.start > threshold) {
+			this.seek(this.index - 1);
+		}
+		while (this.start <= threshold) {
+			this.next();
+		}
+		return this.hasOccurrence();
+	}
+
+	/**
+	 * Places the cursor on an occurrence of a series with a rule.
+	 * @param n the zero based index of the occurrence
+	 * @param day the day of the occurrence since the epoch or
+	 * 		{@link Long#MAX_VALUE}, if there is none
+	 * @return whether the cursor is placed on an occurrence
+	 */
+	private boolean setDay(final long n, final long day) {
+		this.index = n;
+		this.start = day != Long.MAX_VALUE
+				? day * EpochMinutes.MINUTES_PER_DAY + this.startMinuteOfDay
+				: Long.MAX_VALUE;
+		return this.hasOccurrence();
+	}
+
+	private void update() {
+		this.start = this.periodMonths == 0
+				? this.firstStart + this.minutes
+				: EpochMinutes.ofMonthIndex(this.monthIndex, this.startDayOfMonth,
+					this.startMinuteOfDay) + this.minutes;
+	}
+}
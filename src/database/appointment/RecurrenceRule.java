@@ -0,0 +1,280 @@
+package database.appointment;
+
+import util.EpochMinutes;
+
+/**
+ * Immutable rule, that selects the days of a repeating
+ * {@link Appointment Appointment} series by sets of weekdays, days of the
+ * month and nth weekdays of the month. A day is selected, if any of the sets
+ * contains it.<br/>
+ * The selected days of a month are built as a bitset, whose bit {@code d - 1}
+ * stands for the day {@code d}. The days of the selected weekdays are taken
+ * from a table indexed by the weekday set and the weekday of the first of the
+ * month, the other sets are added by shifts, so that no calendar arithmetic
+ * is done per day.
+ * @author Mario Schäper
+ */
+public final class RecurrenceRule {
+	/**
+	 * Bit of the set of days of the month, that stands for the last day of
+	 * every month.
+	 */
+	public static final int LAST_DAY_OF_MONTH = 1 << 31;
+	/**
+	 * Index of the nth weekday, that stands for the last one of the month.
+	 */
+	public static final int LAST_WEEK = 5;
+	private static final int DAYS_PER_WEEK = 7;
+	private static final int MAX_MONTHS_WITHOUT_DAY = 48;
+	/**
+	 * The days of a month with 31 days, that fall on the weekdays of a set,
+	 * indexed by the set and the weekday of the first day of the month.
+	 */
+	private static final int[][] WEEKDAY_DAYS = new int[1 << DAYS_PER_WEEK][DAYS_PER_WEEK];
+
+	static {
+		for (int weekdays = 0; weekdays < WEEKDAY_DAYS.length; weekdays++) {
+			for (int first = 0; first < DAYS_PER_WEEK; first++) {
+				int days = 0;
+				for (int day = 0; day < 31; day++) {
+					if ((weekdays & 1 << (first + day) % DAYS_PER_WEEK) != 0) {
+						days |= 1 << day;
+					}
+				}
+				WEEKDAY_DAYS[weekdays][first] = days;
+			}
+		}
+	}
+
+	private final int weekdays;
+	private final int monthDays;
+	private final long nthWeekdays;
+
+	/**
+	 * Invokes an instance of the class {@link RecurrenceRule RecurrenceRule}.
+	 * @param weekdays the set of weekdays, bit 0 standing for monday
+	 * @param monthDays the set of days of the month, bit {@code d - 1} standing
+	 * 		for the day {@code d} and {@link #LAST_DAY_OF_MONTH LAST_DAY_OF_MONTH}
+	 * 		for the last day
+	 * @param nthWeekdays the set of nth weekdays of the month, see
+	 * 		{@link #nthWeekday(int, int) nthWeekday}
+	 */
+	public RecurrenceRule(final int weekdays, final int monthDays, final long nthWeekdays) {
+		this.weekdays = weekdays & (1 << DAYS_PER_WEEK) - 1;
+		this.monthDays = monthDays;
+		this.nthWeekdays = nthWeekdays & (1L << (LAST_WEEK + 1) * DAYS_PER_WEEK) - 1;
+	}
+
+	/**
+	 * @param weekday the weekday, 0 standing for monday
+	 * @return the bit of the weekday in the set of weekdays
+	 */
+	public static int weekday(final int weekday) {
+		return 1 << weekday;
+	}
+
+	/**
+	 * @param week the zero based week of the month or
+	 * 		{@link #LAST_WEEK LAST_WEEK} for the last one
+	 * @param weekday the weekday, 0 standing for monday
+	 * @return the bit of the nth weekday in the set of nth weekdays
+	 */
+	public static long nthWeekday(final int week, final int weekday) {
+		return 1L << week * DAYS_PER_WEEK + weekday;
+	}
+
+	public int getWeekdays() {
+		return this.weekdays;
+	}
+
+	public int getMonthDays() {
+		return this.monthDays;
+	}
+
+	public long getNthWeekdays() {
+		return this.nthWeekdays;
+	}
+
+	/**
+	 * @return whether the rule selects no day at all
+	 */
+	public boolean isEmpty() {
+		return this.weekdays == 0 && this.monthDays == 0 && this.nthWeekdays == 0;
+	}
+
+	/**
+	 * Returns the selected days of a month.
+	 * @param monthIndex the months since the first month of the year 0
+	 * @return the bitset of the days, bit {@code d - 1} standing for the day {@code d}
+	 */
+	public int getDays(final long monthIndex) {
+		final long year = Math.floorDiv(monthIndex, 12);
+		final int month = Math.floorMod(monthIndex, 12);
+		final int length = EpochMinutes.lengthOfMonth(year, month);
+		final int first = RecurrenceRule.getWeekday(EpochMinutes.daysFromCivil(year, month, 1));
+		int days = WEEKDAY_DAYS[this.weekdays][first] | this.monthDays & ~LAST_DAY_OF_MONTH;
+		if ((this.monthDays & LAST_DAY_OF_MONTH) != 0) {
+			days |= 1 << length - 1;
+		}
+		for (long nth = this.nthWeekdays; nth != 0; nth &= nth - 1) {
+			final int bit = Long.numberOfTrailingZeros(nth);
+			final int week = bit / DAYS_PER_WEEK;
+			final int offset = Math.floorMod(bit % DAYS_PER_WEEK - first, DAYS_PER_WEEK);
+			final int day = week == LAST_WEEK
+					? offset + (length - 1 - offset) / DAYS_PER_WEEK * DAYS_PER_WEEK
+					: offset + week * DAYS_PER_WEEK;
+			if (day < length) {
+				days |= 1 << day;
+			}
+		}
+		return days & (int)((1L << length) - 1);
+	}
+
+	/**
+	 * @param day the days since the epoch
+	 * @return whether the day is selected
+	 */
+	public boolean matches(final long day) {
+		final long minutes = day * EpochMinutes.MINUTES_PER_DAY;
+		return (this.getDays(EpochMinutes.getMonthIndex(minutes))
+				& 1 << EpochMinutes.getDayOfMonth(minutes) - 1) != 0;
+	}
+
+	/**
+	 * @param day the days since the epoch
+	 * @return the first selected day at or after the given day or
+	 * 		{@link Long#MAX_VALUE}, if there is none
+	 */
+	public long nextDay(final long day) {
+		final long minutes = day * EpochMinutes.MINUTES_PER_DAY;
+		long monthIndex = EpochMinutes.getMonthIndex(minutes);
+		int days = this.getDays(monthIndex) & -1 << EpochMinutes.getDayOfMonth(minutes) - 1;
+		for (int i = 0; i < MAX_MONTHS_WITHOUT_DAY; i++) {
+			if (days != 0) {
+				return RecurrenceRule.getFirstDay(monthIndex) + Integer.numberOfTrailingZeros(days);
+			}
+			days = this.getDays(++monthIndex);
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Moves the start of a series to the first selected day at or after its
+	 * day, keeping its time of day, so that the first occurrence is one of the
+	 * selected days as well.
+	 * @param start the start in local minutes
+	 * @return the start on the first selected day in local minutes or the
+	 * 		given start, if no day is selected
+	 */
+	public long firstStart(final long start) {
+		final long day = EpochMinutes.getEpochDay(start);
+		final long first = this.nextDay(day);
+		return first != Long.MAX_VALUE
+				? start + (first - day) * EpochMinutes.MINUTES_PER_DAY
+				: start;
+	}
+
+	/**
+	 * @param day the days since the epoch
+	 * @return the last selected day at or before the given day or
+	 * 		{@link Long#MIN_VALUE}, if there is none
+	 */
+	public long previousDay(final long day) {
+		final long minutes = day * EpochMinutes.MINUTES_PER_DAY;
+		long monthIndex = EpochMinutes.getMonthIndex(minutes);
+		int days = this.getDays(monthIndex)
+				& (int)((1L << EpochMinutes.getDayOfMonth(minutes)) - 1);
+		for (int i = 0; i < MAX_MONTHS_WITHOUT_DAY; i++) {
+			if (days != 0) {
+				return RecurrenceRule.getFirstDay(monthIndex)
+						+ 31 - Integer.numberOfLeadingZeros(days);
+			}
+			days = this.getDays(--monthIndex);
+		}
+		return Long.MIN_VALUE;
+	}
+
+	/**
+	 * @param from the first day since the epoch
+	 * @param to the day after the last day since the epoch
+	 * @return the amount of selected days within the range
+	 */
+	public long countDays(final long from, final long to) {
+		if (from >= to) {
+			return 0;
+		}
+		long monthIndex = EpochMinutes.getMonthIndex(from * EpochMinutes.MINUTES_PER_DAY);
+		long firstDay = RecurrenceRule.getFirstDay(monthIndex);
+		long count = 0;
+		while (firstDay < to) {
+			final long nextFirstDay = RecurrenceRule.getFirstDay(monthIndex + 1);
+			int days = this.getDays(monthIndex);
+			if (from > firstDay) {
+				days &= -1 << from - firstDay;
+			}
+			if (to < nextFirstDay) {
+				days &= (int)((1L << to - firstDay) - 1);
+			}
+			count += Integer.bitCount(days);
+			monthIndex++;
+			firstDay = nextFirstDay;
+		}
+		return count;
+	}
+
+	/**
+	 * @param from the first day since the epoch
+	 * @param n the zero based index of the selected day
+	 * @return the n-th selected day at or after the given day or
+	 * 		{@link Long#MAX_VALUE}, if there is none
+	 */
+	public long nthDay(final long from, final long n) {
+		final long minutes = from * EpochMinutes.MINUTES_PER_DAY;
+		long monthIndex = EpochMinutes.getMonthIndex(minutes);
+		int days = this.getDays(monthIndex) & -1 << EpochMinutes.getDayOfMonth(minutes) - 1;
+		long remaining = n;
+		int emptyMonths = 0;
+		while (remaining >= Integer.bitCount(days)) {
+			remaining -= Integer.bitCount(days);
+			emptyMonths = days == 0 ? emptyMonths + 1 : 0;
+			if (emptyMonths >= MAX_MONTHS_WITHOUT_DAY) {
+				return Long.MAX_VALUE;
+			}
+			days = this.getDays(++monthIndex);
+		}
+		for (; remaining > 0; remaining--) {
+			days &= days - 1;
+		}
+		return RecurrenceRule.getFirstDay(monthIndex) + Integer.numberOfTrailingZeros(days);
+	}
+
+	/**
+	 * @param day the days since the epoch
+	 * @return the weekday of the day, 0 standing for monday
+	 */
+	private static int getWeekday(final long day) {
+		return Math.floorMod(day + 3, DAYS_PER_WEEK);
+	}
+
+	/**
+	 * @param monthIndex the months since the first month of the year 0
+	 * @return the days since the epoch of the first day of the month
+	 */
+	private static long getFirstDay(final long monthIndex) {
+		return EpochMinutes.daysFromCivil(
+				Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12), 1);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * this.weekdays + this.monthDays) + Long.hashCode(this.nthWeekdays);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return other instanceof RecurrenceRule
+				&& ((RecurrenceRule)other).weekdays == this.weekdays
+				&& ((RecurrenceRule)other).monthDays == this.monthDays
+				&& ((RecurrenceRule)other).nthWeekdays == this.nthWeekdays;
+	}
+}
@@ -0,0 +1,63 @@
+package database.appointment;
+
+/**
+ * Immutable class representing a single {@link AppointmentItem AppointmentItem}
+ * of an {@link AppointmentGroup AppointmentGroup} together with its
+ * {@link Recurrence Recurrence}, as it is stored in the
+ * {@link database.DatabaseController Database}.
+ * @author Mario Schäper
+ */
+public final class Series {
+	private final int appointmentId;
+	private final int appointmentGroupId;
+	private final int priorityId;
+	private final int categoryId;
+	private final String subject;
+	private final String description;
+	private final Recurrence recurrence;
+
+	public Series(final int appointmentId, final int appointmentGroupId,
+			final int priorityId, final int categoryId, final String subject,
+			final String description, final Recurrence recurrence) {
+		this.appointmentId = appointmentId;
+		this.appointmentGroupId = appointmentGroupId;
+		this.priorityId = priorityId;
+		this.categoryId = categoryId;
+		this.subject = subject;
+		this.description = description;
+		this.recurrence = recurrence;
+	}
+
+	public int getAppointmentId() {
+		return this.appointmentId;
+	}
+
+	public int getAppointmentGroupId() {
+		return this.appointmentGroupId;
+	}
+
+	public int getPriorityId() {
+		return this.priorityId;
+	}
+
+	public int getCategoryId() {
+		return this.categoryId;
+	}
+
+	public String getSubject() {
+		return this.subject;
+	}
+
+	public String getDescription() {
+		return this.description;
+	}
+
+	public Recurrence getRecurrence() {
+		return this.recurrence;
+	}
+
+	@Override
+	public String toString() {
+		return this.subject;
+	}
+}
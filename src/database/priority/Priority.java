@@ -18,6 +18,7 @@ public class Priority extends DatabaseItem {
 	public static final Priority NONE = DatabaseController.getPriorityById(1);
 
 	private StringProperty nameProperty;
+	private ObservableList<Period> alarms;
 	private ObservableList<Period> alarmListProperty;
 
 	static {
@@ -44,11 +45,12 @@ public class Priority extends DatabaseItem {
 
 	public Priority(final String name, final List<Period> alarmList) {
 		this.nameProperty = new SimpleStringProperty(name);
-		this.alarmListProperty = new SortedList<>(new SimpleListProperty<>(
+		this.alarms = new SimpleListProperty<>(
 				FXCollections.observableArrayList(
 						alarmList != null
 							? alarmList
-							: new ArrayList<>())));
+							: new ArrayList<>()));
+		this.alarmListProperty = new SortedList<>(this.alarms);
 	}
 
 	public StringProperty nameProperty() {
@@ -72,7 +74,7 @@ public class Priority extends DatabaseItem {
 	}
 
 	public void setAlarmList(final List<Period> alarmList) {
-		this.alarmListProperty.setAll(alarmList);
+		this.alarms.setAll(alarmList);
 	}
 
 	@Override
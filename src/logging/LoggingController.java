@@ -154,7 +154,8 @@ public class LoggingController {
 	public static void log(Level level, String message) {
 		StackTraceElement st = LoggingController.getStackTrace();
 		Logger.getLogger(st.getClassName()).log(
-				level, st.getClassName() + "." + st.getMethodName() + ": " + message);
+				level, st.getClassName() + "." + st.getMethodName()
+						.replaceFirst("^lambda\\$(.*)\\$\\d+$", "$1") + ": " + message);
 	}
 
 	/**
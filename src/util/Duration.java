@@ -1,6 +1,5 @@
 package util;
 
-import java.util.Calendar;
 import java.util.GregorianCalendar;
 
 /**
@@ -21,16 +20,25 @@ public class Duration implements Comparable<Duration> {
 	}
 
 	public Duration(GregorianCalendar from, GregorianCalendar to, boolean monthsAsDays) {
-		this.months = (short)(monthsAsDays ? 0 : this.monthsBetween(from, to));
-		GregorianCalendar tmp = (GregorianCalendar)from.clone();
-		tmp.add(Calendar.MONTH, this.months);
-		this.minutes = (to.getTimeInMillis() - tmp.getTimeInMillis()) / 60000;
+		this(EpochMinutes.of(from), EpochMinutes.of(to), monthsAsDays);
 	}
 
 	public Duration(GregorianCalendar from, GregorianCalendar to) {
 		this(from, to, false);
 	}
 
+	/**
+	 * Creates the Duration between two times given in local minutes
+	 * (see {@link EpochMinutes EpochMinutes}).
+	 * @param from the first time
+	 * @param to the second time
+	 * @param monthsAsDays whether months should be expressed as minutes
+	 */
+	public Duration(long from, long to, boolean monthsAsDays) {
+		this.months = (short)(monthsAsDays ? 0 : Duration.monthsBetween(from, to));
+		this.minutes = to - EpochMinutes.plusMonths(from, this.months);
+	}
+
 	/**
 	 * Returns the amount of months.
 	 * @return months
@@ -79,12 +87,19 @@ public class Duration implements Comparable<Duration> {
 	 * @return resulting {@link java.util.GregorianCalendar GregorianCalendar} instance
 	 */
 	public static GregorianCalendar add(GregorianCalendar augend, Duration addend) {
-		GregorianCalendar ret = (GregorianCalendar)augend.clone();
-		ret.add(Calendar.MONTH, addend.months);
-		ret.add(Calendar.DAY_OF_MONTH, addend.getDays());
-		ret.add(Calendar.HOUR_OF_DAY, addend.getHours());
-		ret.add(Calendar.MINUTE, addend.getMinutes());
-		return ret;
+		return EpochMinutes.toCalendar(Duration.add(EpochMinutes.of(augend), addend));
+	}
+
+	/**
+	 * Returns the sum of a time in local minutes (see
+	 * {@link EpochMinutes EpochMinutes}) and a {@link Duration Duration}.
+	 * The months are added first, clamping the day to the end of shorter months.
+	 * @param augend the augend in local minutes
+	 * @param addend the addend
+	 * @return the sum in local minutes
+	 */
+	public static long add(long augend, Duration addend) {
+		return EpochMinutes.plusMonths(augend, addend.months) + addend.minutes;
 	}
 
 	/**
@@ -105,12 +120,19 @@ public class Duration implements Comparable<Duration> {
 	 * @return resulting {@link java.util.GregorianCalendar GregorianCalendar} instance
 	 */
 	public static GregorianCalendar subtract(GregorianCalendar minuend, Duration subtrahend) {
-		GregorianCalendar ret = (GregorianCalendar)minuend.clone();
-		ret.add(Calendar.MINUTE, -subtrahend.getMinutes() * -1);
-		ret.add(Calendar.HOUR_OF_DAY, -subtrahend.getHours());
-		ret.add(Calendar.DAY_OF_MONTH, -subtrahend.getDays());
-		ret.add(Calendar.MONTH, -subtrahend.months);
-		return ret;
+		return EpochMinutes.toCalendar(Duration.subtract(EpochMinutes.of(minuend), subtrahend));
+	}
+
+	/**
+	 * Returns the difference of a time in local minutes (see
+	 * {@link EpochMinutes EpochMinutes}) and a {@link Duration Duration}.
+	 * The minutes are subtracted first, then the months.
+	 * @param minuend the minuend in local minutes
+	 * @param subtrahend the subtrahend
+	 * @return the difference in local minutes
+	 */
+	public static long subtract(long minuend, Duration subtrahend) {
+		return EpochMinutes.plusMonths(minuend - subtrahend.minutes, -subtrahend.months);
 	}
 
 	/**
@@ -164,19 +186,20 @@ public class Duration implements Comparable<Duration> {
 	}
 
 	/**
-	 * Returns the amount of months between two
-	 * {@link java.util.GregorianCalendar GregorianCalendar} instances.
-	 * @param from first date
-	 * @param to second date
+	 * Returns the amount of whole months between two times in local minutes,
+	 * that end before the second time.
+	 * @param from first time
+	 * @param to second time
 	 * @return months
 	 */
-	private int monthsBetween(GregorianCalendar from, GregorianCalendar to) {
-		int months = 0;
-		GregorianCalendar tmp = (GregorianCalendar)from.clone();
-		tmp.add(Calendar.MONTH, 1);
-		while (tmp.before(to)) {
+	private static int monthsBetween(long from, long to) {
+		int months = (int)Math.max(0,
+				EpochMinutes.getMonthIndex(to) - EpochMinutes.getMonthIndex(from) - 1);
+		while (months > 0 && EpochMinutes.plusMonths(from, months) >= to) {
+			months--;
+		}
+		while (EpochMinutes.plusMonths(from, months + 1) < to) {
 			months++;
-			tmp.add(Calendar.MONTH, 1);
 		}
 		return months;
 	}
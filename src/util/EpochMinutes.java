@@ -0,0 +1,261 @@
+package util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Static Class for times represented as local wall-clock minutes since the
+ * epoch.<br/>
+ * A time is a single {@code long}, so that comparing, shifting and splitting it
+ * into its fields needs neither a {@link java.util.GregorianCalendar
+ * GregorianCalendar} nor any other allocation. A time zone is only applied
+ * when converting from and to milliseconds or calendars. Unless one is given,
+ * that is the default time zone; calendars are converted in their own zone.
+ * @author Mario Schäper
+ */
+public abstract class EpochMinutes {
+	public static final int MINUTES_PER_HOUR = 60;
+	public static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+	private static final int[] DAYS_PER_MONTH =
+			{31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+	/**
+	 * Converts milliseconds since the epoch into local minutes.
+	 * @param millis the milliseconds
+	 * @return the local minutes
+	 */
+	public static long ofMillis(final long millis) {
+		return EpochMinutes.ofMillis(millis, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Converts milliseconds since the epoch into local minutes of a time zone.
+	 * @param millis the milliseconds
+	 * @param zone the time zone
+	 * @return the local minutes
+	 */
+	public static long ofMillis(final long millis, final ZoneId zone) {
+		final int offset = zone.getRules()
+				.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+		return Math.floorDiv(millis + offset * 1000L, 60000L);
+	}
+
+	/**
+	 * Converts local minutes into milliseconds since the epoch.
+	 * @param localMinutes the local minutes
+	 * @return the milliseconds
+	 */
+	public static long toMillis(final long localMinutes) {
+		return EpochMinutes.toMillis(localMinutes, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Converts local minutes of a time zone into milliseconds since the epoch.
+	 * @param localMinutes the local minutes
+	 * @param zone the time zone
+	 * @return the milliseconds
+	 */
+	public static long toMillis(final long localMinutes, final ZoneId zone) {
+		return LocalDateTime.ofEpochSecond(localMinutes * 60, 0, ZoneOffset.UTC)
+				.atZone(zone)
+				.toInstant()
+				.toEpochMilli();
+	}
+
+	/**
+	 * @param calendar the calendar
+	 * @return the local minutes of the calendar in its time zone
+	 */
+	public static long of(final GregorianCalendar calendar) {
+		return EpochMinutes.ofMillis(calendar.getTimeInMillis(),
+				calendar.getTimeZone().toZoneId());
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return a new calendar of the given time in the default time zone
+	 */
+	public static GregorianCalendar toCalendar(final long localMinutes) {
+		return EpochMinutes.toCalendar(localMinutes, ZoneId.systemDefault());
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @param zone the time zone
+	 * @return a new calendar of the given time in the given time zone
+	 */
+	public static GregorianCalendar toCalendar(final long localMinutes, final ZoneId zone) {
+		final GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone(zone));
+		calendar.setTimeInMillis(EpochMinutes.toMillis(localMinutes, zone));
+		return calendar;
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the day of the given time
+	 */
+	public static LocalDate toLocalDate(final long localMinutes) {
+		return LocalDate.ofEpochDay(EpochMinutes.getEpochDay(localMinutes));
+	}
+
+	/**
+	 * @param date the day
+	 * @return the local minutes of the start of the day
+	 */
+	public static long of(final LocalDate date) {
+		return date.toEpochDay() * MINUTES_PER_DAY;
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the days since the epoch
+	 */
+	public static long getEpochDay(final long localMinutes) {
+		return Math.floorDiv(localMinutes, MINUTES_PER_DAY);
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the minutes since the start of the day
+	 */
+	public static int getMinuteOfDay(final long localMinutes) {
+		return Math.floorMod(localMinutes, MINUTES_PER_DAY);
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the hour of the day
+	 */
+	public static int getHour(final long localMinutes) {
+		return EpochMinutes.getMinuteOfDay(localMinutes) / MINUTES_PER_HOUR;
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the minute of the hour
+	 */
+	public static int getMinute(final long localMinutes) {
+		return EpochMinutes.getMinuteOfDay(localMinutes) % MINUTES_PER_HOUR;
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the day of the month
+	 */
+	public static int getDayOfMonth(final long localMinutes) {
+		return (int)(EpochMinutes.civilFromDays(
+				EpochMinutes.getEpochDay(localMinutes)) & 31);
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the zero based month, as used by {@link java.util.Calendar#MONTH}
+	 */
+	public static int getMonth(final long localMinutes) {
+		return Math.floorMod(EpochMinutes.getMonthIndex(localMinutes), 12);
+	}
+
+	/**
+	 * @param localMinutes the local minutes
+	 * @return the year
+	 */
+	public static long getYear(final long localMinutes) {
+		return Math.floorDiv(EpochMinutes.getMonthIndex(localMinutes), 12);
+	}
+
+	/**
+	 * Returns the months since the first month of the year 0, that contains the
+	 * given time.
+	 * @param localMinutes the local minutes
+	 * @return the index of the month
+	 */
+	public static long getMonthIndex(final long localMinutes) {
+		return EpochMinutes.civilFromDays(EpochMinutes.getEpochDay(localMinutes)) >> 5;
+	}
+
+	/**
+	 * Returns the time at the given day and minute of a month. Days beyond the
+	 * end of the month are clamped to its last day, as
+	 * {@link java.util.GregorianCalendar#add(int, int) GregorianCalendar.add}
+	 * would.
+	 * @param monthIndex the months since the first month of the year 0
+	 * @param dayOfMonth the day of the month
+	 * @param minuteOfDay the minutes since the start of the day
+	 * @return the local minutes
+	 */
+	public static long ofMonthIndex(final long monthIndex, final int dayOfMonth,
+			final long minuteOfDay) {
+		final long year = Math.floorDiv(monthIndex, 12);
+		final int month = Math.floorMod(monthIndex, 12);
+		final int day = Math.min(dayOfMonth, EpochMinutes.lengthOfMonth(year, month));
+		return EpochMinutes.daysFromCivil(year, month, day) * MINUTES_PER_DAY + minuteOfDay;
+	}
+
+	/**
+	 * Adds months to a time, clamping its day to the end of shorter months.
+	 * @param localMinutes the local minutes
+	 * @param months the months to add
+	 * @return the local minutes
+	 */
+	public static long plusMonths(final long localMinutes, final long months) {
+		if (months == 0) {
+			return localMinutes;
+		}
+		final long day = EpochMinutes.getEpochDay(localMinutes);
+		final long civil = EpochMinutes.civilFromDays(day);
+		return EpochMinutes.ofMonthIndex((civil >> 5) + months, (int)(civil & 31),
+				localMinutes - day * MINUTES_PER_DAY);
+	}
+
+	/**
+	 * @param year the year
+	 * @param month the zero based month
+	 * @return the amount of days of the month
+	 */
+	public static int lengthOfMonth(final long year, final int month) {
+		return month == 1 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))
+				? 29
+				: DAYS_PER_MONTH[month];
+	}
+
+	/**
+	 * Returns the days since the epoch of a gregorian date.
+	 * @param year the year
+	 * @param month the zero based month
+	 * @param day the day of the month
+	 * @return the days since the epoch
+	 */
+	public static long daysFromCivil(final long year, final int month, final int day) {
+		final long y = month < 2 ? year - 1 : year;
+		final long era = Math.floorDiv(y, 400);
+		final long yearOfEra = y - era * 400;
+		final long dayOfYear = (153 * (month < 2 ? month + 10 : month - 2) + 2) / 5 + day - 1;
+		final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	/**
+	 * Returns the gregorian date of the given days since the epoch,
+	 * packed as {@code (year * 12 + month) << 5 | day}.
+	 * @param days the days since the epoch
+	 * @return the packed date
+	 */
+	private static long civilFromDays(final long days) {
+		final long z = days + 719468;
+		final long era = Math.floorDiv(z, 146097);
+		final long dayOfEra = z - era * 146097;
+		final long yearOfEra =
+				(dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+		final long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		final long month = shiftedMonth < 10 ? shiftedMonth + 2 : shiftedMonth - 10;
+		final long year = yearOfEra + era * 400 + (month < 2 ? 1 : 0);
+		return (year * 12 + month) << 5 | day;
+	}
+}
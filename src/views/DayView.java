@@ -1,10 +1,17 @@
 package views;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Deque;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
+import javafx.scene.Node;
 import javafx.scene.layout.Pane;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.ScrollPane.ScrollBarPolicy;
@@ -15,6 +22,7 @@ import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import settings.SettingController;
 import database.DatabaseController;
+import database.DatabaseExecutor;
 import database.appointment.Appointment;
 import de.schaeper.fx.bindings.ConverterBinding;
 import de.schaeper.fx.scene.text.font.Font;
@@ -31,10 +39,14 @@ import util.Time;
 public class DayView extends DateView {
 	private ResizableRectangle topBar;
 	private DayScale dayScale;
+	private CompletableFuture<ArrayList<Appointment>> loading;
 
 	/**
 	 * Represents the scale of a day, in which {@link Appointment Appointments}
-	 * can be displayed
+	 * can be displayed.<br/>
+	 * The grid of the scale is built once. The nodes of the appointments are
+	 * pooled and only rebound, shown or hidden, when the displayed
+	 * appointments change.
 	 *
 	 * @author Mario Schäper
 	 */
@@ -42,50 +54,122 @@ public class DayView extends DateView {
 	private class DayScale extends Pane {
 		private Time start;
 		private Time end;
-
-		private DayScale(Time start, Time end) {
-			this.start = start;
-			this.end = end;
-			this.update();
-		}
+		private Rectangle backgroundRight;
+		private DoubleProperty heightPerMinute;
+		private List<AppointmentNode> shown = new ArrayList<>();
+		private Deque<AppointmentNode> pool = new ArrayDeque<>();
 
 		/**
-		 * @return the Time property of the start of the scale
+		 * The nodes displaying a single occurrence of an
+		 * {@link Appointment Appointment}. Its bindings to the settings are
+		 * created once, so that reusing it only changes its minutes and texts.
+		 *
+		 * @author Mario Schäper
 		 */
-		private Time startProperty() {
-			return this.start;
-		}
+		private class AppointmentNode {
+			private final DoubleProperty startMinute = new SimpleDoubleProperty();
+			private final DoubleProperty endMinute = new SimpleDoubleProperty();
+			private final Rectangle rectangle;
+			private final Label subjectLabel;
+			private final Label descriptionLabel;
+			private String key;
 
-		/**
-		 * @return the Time property of the end of the scale
-		 */
-		private Time endProperty() {
-			return this.end;
+			private AppointmentNode() {
+				this.rectangle = new Rectangle() {
+					@Override
+					public double minWidth(double height) {
+						return 0;
+					}
+				};
+				this.rectangle.xProperty().bind(DayScale.this.backgroundRight.xProperty().add(10));
+				this.rectangle.widthProperty()
+						.bind(DayScale.this.backgroundRight.widthProperty().subtract(20));
+				this.rectangle.yProperty()
+						.bind(DayScale.this.backgroundRight.yProperty().add(DayScale.this.heightPerMinute
+								.multiply(this.startMinute.subtract(DayScale.this.start))));
+				this.rectangle.heightProperty()
+						.bind(DayScale.this.heightPerMinute
+								.multiply(this.endMinute.subtract(this.startMinute)));
+				this.rectangle.fillProperty().bind(SettingController.get().DAYVIEW_APPOINTMENT_BACKGROUND_COLOR);
+				this.rectangle.strokeProperty().bind(SettingController.get().DAYVIEW_APPOINTMENT_STROKE_COLOR);
+				this.subjectLabel = new Label();
+				ConverterBinding.bind(
+						SettingController.get().DAYVIEW_APPOINTMENT_SUBJECT_FONT,
+						this.subjectLabel.fontProperty(),
+						Font::getFxFont);
+				this.subjectLabel.translateXProperty().bind(this.rectangle.xProperty().add(5));
+				this.subjectLabel.translateYProperty().bind(this.rectangle.yProperty().add(5));
+				this.descriptionLabel = new Label();
+				ConverterBinding.bind(
+						SettingController.get().DAYVIEW_APPOINTMENT_DESCRIPTION_FONT,
+						this.descriptionLabel.fontProperty(),
+						Font::getFxFont);
+				this.descriptionLabel.translateXProperty().bind(this.rectangle.xProperty().add(5));
+				this.descriptionLabel.translateYProperty().bind(this.rectangle.yProperty()
+						.add(this.subjectLabel.heightProperty()).add(10));
+				DayScale.this.getChildren().addAll(
+						this.rectangle, this.subjectLabel, this.descriptionLabel);
+			}
+
+			/**
+			 * Displays an appointment with the nodes.
+			 * @param appointment the appointment
+			 * @param key the key of the occurrence of the appointment
+			 */
+			private void show(final Appointment appointment, final String key) {
+				final int day = DayView.this.date.get(Calendar.DAY_OF_MONTH);
+				this.key = key;
+				this.startMinute.set(appointment.getStartDay() == day
+						? appointment.getStartHour() * 60 + appointment.getStartMinute()
+						: 0);
+				this.endMinute.set(appointment.getEndDay() == day
+						? appointment.getEndHour() * 60 + appointment.getEndMinute()
+						: 1440);
+				this.subjectLabel.textProperty().bind(appointment.subjectProperty());
+				this.descriptionLabel.textProperty().bind(appointment.descriptionProperty());
+				this.setVisible(true);
+			}
+
+			/**
+			 * Hides the nodes and releases the displayed appointment.
+			 */
+			private void hide() {
+				this.key = null;
+				this.subjectLabel.textProperty().unbind();
+				this.descriptionLabel.textProperty().unbind();
+				this.setVisible(false);
+			}
+
+			private void setVisible(final boolean visible) {
+				for (Node node : Arrays.asList(
+						this.rectangle, this.subjectLabel, this.descriptionLabel)) {
+					node.setVisible(visible);
+					node.setManaged(visible);
+				}
+			}
 		}
 
-		/**
-		 * Refreshes the visuals for the instance
-		 */
-		private void update() {
-			this.getChildren().clear();
+		private DayScale(Time start, Time end) {
+			this.start = start;
+			this.end = end;
 			Rectangle backgroundLeft = new ResizableRectangle();
 			backgroundLeft.widthProperty().set(60);
 			backgroundLeft.heightProperty().bind(this.heightProperty());
 			backgroundLeft.fillProperty().bind(SettingController.get().DAYVIEW_BACKGROUND_LEFT_COLOR);
-			Rectangle backgroundRight = new ResizableRectangle();
-			backgroundRight.widthProperty()
+			this.backgroundRight = new ResizableRectangle();
+			this.backgroundRight.widthProperty()
 					.bind(this.widthProperty().subtract(backgroundLeft.widthProperty()));
-			backgroundRight.xProperty()
+			this.backgroundRight.xProperty()
 					.bind(backgroundLeft.xProperty().add(backgroundLeft.widthProperty()));
-			backgroundRight.heightProperty().bind(this.heightProperty());
-			backgroundRight.fillProperty().bind(SettingController.get().DAYVIEW_BACKGROUND_RIGHT_COLOR);
-			this.getChildren().addAll(backgroundLeft, backgroundRight);
-			DoubleProperty heightPerMinute = new SimpleDoubleProperty();
-			heightPerMinute.bind(this.heightProperty().divide(this.end.subtract(this.start)));
+			this.backgroundRight.heightProperty().bind(this.heightProperty());
+			this.backgroundRight.fillProperty().bind(SettingController.get().DAYVIEW_BACKGROUND_RIGHT_COLOR);
+			this.getChildren().addAll(backgroundLeft, this.backgroundRight);
+			this.heightPerMinute = new SimpleDoubleProperty();
+			this.heightPerMinute.bind(this.heightProperty().divide(this.end.subtract(this.start)));
 			for (byte i = (byte)Math.ceil(this.start.doubleValue() / 60); i <= this.end
 					.getHour(); i++) {
 				DoubleProperty height = new SimpleDoubleProperty();
-				height.bind(heightPerMinute.multiply(this.start.multiply(-1).add(i * 60)));
+				height.bind(this.heightPerMinute.multiply(this.start.multiply(-1).add(i * 60)));
 				Line line = new Line();
 				line.startYProperty().bind(height);
 				line.endYProperty().bind(height);
@@ -105,57 +189,77 @@ public class DayView extends DateView {
 				line2.startYProperty().bind(height);
 				line2.endYProperty().bind(height);
 				line2.startXProperty().bind(
-						backgroundRight.xProperty().add(line2.strokeWidthProperty().divide(2)));
+						this.backgroundRight.xProperty().add(line2.strokeWidthProperty().divide(2)));
 				line2.endXProperty()
-						.bind(backgroundRight.xProperty().add(backgroundRight.widthProperty())
+						.bind(this.backgroundRight.xProperty().add(this.backgroundRight.widthProperty())
 								.subtract(line2.strokeWidthProperty().divide(2)));
 				this.getChildren().addAll(line, label, line2);
 			}
-			ArrayList<Appointment> appointments = DatabaseController
-					.getDayAppointments(DayView.this.date);
+		}
+
+		/**
+		 * @return the Time property of the start of the scale
+		 */
+		private Time startProperty() {
+			return this.start;
+		}
+
+		/**
+		 * @return the Time property of the end of the scale
+		 */
+		private Time endProperty() {
+			return this.end;
+		}
+
+		/**
+		 * Refreshes the displayed appointments of the instance.<br/>
+		 * Occurrences, that are already displayed, keep their nodes. The nodes
+		 * of the others are taken from the pool and only created, if it is
+		 * empty.
+		 * @param appointments the appointments to display or null
+		 */
+		private void update(final List<Appointment> appointments) {
+			final Map<String, Deque<AppointmentNode>> previous = new HashMap<>();
+			for (AppointmentNode node : this.shown) {
+				previous.computeIfAbsent(node.key, k -> new ArrayDeque<>()).add(node);
+			}
+			this.shown.clear();
+			final List<Appointment> unmatched = new ArrayList<>();
 			if (appointments != null) {
-				for (Appointment a : appointments) {
-					Rectangle appRec = new Rectangle() {
-						@Override
-						public double minWidth(double height) {
-							return 0;
-						}
-					};
-					appRec.xProperty().bind(backgroundRight.xProperty().add(10));
-					appRec.widthProperty().bind(backgroundRight.widthProperty().subtract(20));
-					appRec.yProperty()
-							.bind(backgroundRight.yProperty().add(heightPerMinute.multiply(
-									(a.getStartDay() == DayView.this.date.get(Calendar.DAY_OF_MONTH)
-											? a.getStartHour() * 60 + a.getStartMinute()
-											: 0) - this.start.getValue())));
-					appRec.heightProperty().bind(backgroundRight.yProperty()
-							.subtract(appRec.yProperty())
-							.add(heightPerMinute.multiply(
-									(a.getEndDay() == DayView.this.date.get(Calendar.DAY_OF_MONTH)
-											? a.getEndHour() * 60 + a.getEndMinute()
-											: 1440) - this.start.getValue())));
-					appRec.fillProperty().bind(SettingController.get().DAYVIEW_APPOINTMENT_BACKGROUND_COLOR);
-					appRec.strokeProperty().bind(SettingController.get().DAYVIEW_APPOINTMENT_STROKE_COLOR);
-					Label subjectLabel = new Label();
-					subjectLabel.textProperty().bind(a.subjectProperty());
-					ConverterBinding.bind(
-							SettingController.get().DAYVIEW_APPOINTMENT_SUBJECT_FONT,
-							subjectLabel.fontProperty(),
-							Font::getFxFont);
-					subjectLabel.translateXProperty().bind(appRec.xProperty().add(5));
-					subjectLabel.translateYProperty().bind(appRec.yProperty().add(5));
-					Label descriptionLabel = new Label();
-					descriptionLabel.textProperty().bind(a.descriptionProperty());
-					ConverterBinding.bind(
-							SettingController.get().DAYVIEW_APPOINTMENT_DESCRIPTION_FONT,
-							descriptionLabel.fontProperty(),
-							Font::getFxFont);
-					descriptionLabel.translateXProperty().bind(appRec.xProperty().add(5));
-					descriptionLabel.translateYProperty()
-							.bind(appRec.yProperty().add(subjectLabel.heightProperty()).add(10));
-					this.getChildren().addAll(appRec, subjectLabel, descriptionLabel);
+				for (Appointment appointment : appointments) {
+					final String key = this.key(appointment);
+					final Deque<AppointmentNode> nodes = previous.get(key);
+					if (nodes == null || nodes.isEmpty()) {
+						unmatched.add(appointment);
+						continue;
+					}
+					final AppointmentNode node = nodes.poll();
+					node.show(appointment, key);
+					this.shown.add(node);
+				}
+			}
+			for (Deque<AppointmentNode> nodes : previous.values()) {
+				for (AppointmentNode node : nodes) {
+					node.hide();
+					this.pool.push(node);
 				}
 			}
+			for (Appointment appointment : unmatched) {
+				final AppointmentNode node = this.pool.isEmpty()
+						? new AppointmentNode()
+						: this.pool.pop();
+				node.show(appointment, this.key(appointment));
+				this.shown.add(node);
+			}
+		}
+
+		/**
+		 * @param appointment an appointment
+		 * @return the key identifying the occurrence of the appointment
+		 */
+		private String key(final Appointment appointment) {
+			return appointment.getStart() + "-" + appointment.getEnd()
+					+ ":" + appointment.getSubject();
 		}
 
 		@Override
@@ -194,16 +298,31 @@ public class DayView extends DateView {
 	}
 
 	/**
-	 * Refreshes all visuals of the instance
+	 * Refreshes all visuals of the instance.<br/>
+	 * The {@link Appointment Appointments} are loaded in the background and
+	 * displayed once they are available. A load, that is still running, is
+	 * cancelled. If the load fails, the scale is cleared.
 	 */
 	@Override
 	public void update() {
-		(new Task<Void>() {
-			@Override
-			protected Void call() throws Exception {
-				Platform.runLater(DayView.this.dayScale::update);
-				return null;
+		if (this.dayScale == null) {
+			return;
+		}
+		if (this.loading != null) {
+			this.loading.cancel(true);
+		}
+		final CompletableFuture<ArrayList<Appointment>> loading =
+				DatabaseController.getDayAppointmentsAsync(this.date);
+		this.loading = loading;
+		loading.whenComplete((appointments, failure) -> Platform.runLater(() -> {
+			if (this.loading == loading) {
+				this.loading = null;
+				if (DatabaseExecutor.logFailure(failure, "Loading the appointments")) {
+					this.dayScale.update(null);
+				} else {
+					this.dayScale.update(appointments);
+				}
 			}
-		}).run();
+		}));
 	}
 }
@@ -3,8 +3,10 @@ package windows;
 import java.util.ArrayList;
 import java.util.function.BiConsumer;
 import database.DatabaseController;
+import database.DatabaseExecutor;
 import database.appointment.AppointmentGroup;
 import database.category.Category;
+import javafx.application.Platform;
 import database.category.CategoryListCell;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -118,17 +120,22 @@ public class ManageCategoriesWindow extends Window {
 	@Override
 	public void initialize() {
 		this.propertiesAccordion.setDisable(true);
-		ObservableList<Category> items = FXCollections.observableArrayList(
-				DatabaseController.getCategories());
-		this.categoriesList.setItems(items);
-		if (items != null && items.size() > 0) {
-			this.categoriesList.getSelectionModel().select(
-					!items.get(0).equals(Category.NONE)
-						? items.get(0)
-						: items.size() > 1
-							? items.get(1)
-							: null);
-		}
+		DatabaseController.getCategoriesAsync().whenComplete((categories, failure) ->
+			Platform.runLater(() -> {
+				if (DatabaseExecutor.logFailure(failure, "Loading the categories")) {
+					return;
+				}
+				ObservableList<Category> items = FXCollections.observableArrayList(categories);
+				this.categoriesList.setItems(items);
+				if (items.size() > 0) {
+					this.categoriesList.getSelectionModel().select(
+							!items.get(0).equals(Category.NONE)
+								? items.get(0)
+								: items.size() > 1
+									? items.get(1)
+									: null);
+				}
+			}));
 	}
 
 	private MenuBar menuBar() {
@@ -146,13 +153,20 @@ public class ManageCategoriesWindow extends Window {
 					new MenuItem("manageCategories.menu.edit.add", e -> {
 						WindowController.showWindow(CreateCategoryWindow.class, this.stage);
 						this.propertiesAccordion.setDisable(true);
-						this.categoriesList.setItems(FXCollections.observableArrayList(
-								DatabaseController.getCategories()));
-						ObservableList<Category> items = this.categoriesList.getItems();
-						if (items != null && items.size() > 0) {
-							this.categoriesList.getSelectionModel().select(
-									items.get(items.size() - 1));
-						}
+						DatabaseController.getCategoriesAsync().whenComplete((categories, failure) ->
+							Platform.runLater(() -> {
+								if (DatabaseExecutor.logFailure(failure, "Loading the categories")) {
+									this.propertiesAccordion.setDisable(
+											this.categoriesList.getSelectionModel().getSelectedItem() == null);
+									return;
+								}
+								this.categoriesList.setItems(
+										FXCollections.observableArrayList(categories));
+								if (categories.size() > 0) {
+									this.categoriesList.getSelectionModel().select(
+											categories.size() - 1);
+								}
+							}));
 					}, "Ctrl+N"),
 					deleteMenuItem));
 	}
@@ -187,8 +201,15 @@ public class ManageCategoriesWindow extends Window {
 		accordion.expandedPaneProperty().addListener((v, o, n) -> {
 			Category selectedCategory = this.categoriesList.getSelectionModel().getSelectedItem();
 			if (this.appointmentsPane.equals(n) && selectedCategory != null) {
-				this.appointmentList.setItems(FXCollections.observableArrayList(
-						DatabaseController.getCategoryAppointments(selectedCategory)));
+				DatabaseController.getCategoryAppointmentsAsync(selectedCategory)
+					.whenComplete((appointments, failure) -> Platform.runLater(() -> {
+						if (DatabaseExecutor.logFailure(failure, "Loading the appointments")) {
+							this.appointmentList.getItems().clear();
+						} else if (appointments != null) {
+							this.appointmentList.setItems(
+									FXCollections.observableArrayList(appointments));
+						}
+					}));
 			}
 		});
 	}
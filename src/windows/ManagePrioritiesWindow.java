@@ -2,9 +2,11 @@ package windows;
 
 import java.util.ArrayList;
 import database.DatabaseController;
+import database.DatabaseExecutor;
 import database.appointment.AppointmentGroup;
 import database.priority.Priority;
 import database.priority.PriorityListCell;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -113,17 +115,23 @@ public class ManagePrioritiesWindow extends Window {
 	@Override
 	public void initialize() {
 		this.propertiesAccordion.setDisable(true);
-		final ObservableList<Priority> items = FXCollections.observableArrayList(
-				DatabaseController.getPriorities());
-		this.prioritiesList.setItems(items);
-		if (items != null && items.size() > 0) {
-			this.prioritiesList.getSelectionModel().select(
-					items.get(0).equals(Priority.NONE)
-						? items.size() > 1
-							? items.get(1)
-							: null
-						: items.get(0));
-		}
+		DatabaseController.getPrioritiesAsync().whenComplete((priorities, failure) ->
+			Platform.runLater(() -> {
+				if (DatabaseExecutor.logFailure(failure, "Loading the priorities")) {
+					return;
+				}
+				final ObservableList<Priority> items =
+						FXCollections.observableArrayList(priorities);
+				this.prioritiesList.setItems(items);
+				if (items.size() > 0) {
+					this.prioritiesList.getSelectionModel().select(
+							items.get(0).equals(Priority.NONE)
+								? items.size() > 1
+									? items.get(1)
+									: null
+								: items.get(0));
+				}
+			}));
 	}
 
 	private MenuBar menuBar() {
@@ -141,13 +149,20 @@ public class ManagePrioritiesWindow extends Window {
 				new MenuItem("managePriorities.menu.edit.add", e -> {
 					WindowController.showWindow(CreatePriorityWindow.class, this.stage);
 					this.propertiesAccordion.setDisable(true);
-					this.prioritiesList.setItems(
-							FXCollections.observableArrayList(
-								DatabaseController.getPriorities()));
-					final ObservableList<Priority> items = this.prioritiesList.getItems();
-					if (items != null && items.size() > 0) {
-						this.prioritiesList.getSelectionModel().select(items.size() - 1);
-					}
+					DatabaseController.getPrioritiesAsync().whenComplete((priorities, failure) ->
+						Platform.runLater(() -> {
+							if (DatabaseExecutor.logFailure(failure, "Loading the priorities")) {
+								this.propertiesAccordion.setDisable(
+										this.prioritiesList.getSelectionModel().getSelectedItem() == null);
+								return;
+							}
+							this.prioritiesList.setItems(
+									FXCollections.observableArrayList(priorities));
+							if (priorities.size() > 0) {
+								this.prioritiesList.getSelectionModel().select(
+										priorities.size() - 1);
+							}
+						}));
 				}, "Ctrl+N"),
 				deleteMenuItem));
 	}
@@ -182,10 +197,15 @@ public class ManagePrioritiesWindow extends Window {
 		accordion.expandedPaneProperty().addListener((v, o, n) -> {
 			final Priority selectedPriority = this.prioritiesList.getSelectionModel().getSelectedItem();
 			if (this.appointmentsPane.equals(n) && selectedPriority != null) {
-				this.appointmentList.setItems(
-						FXCollections.observableArrayList(
-							DatabaseController.getPriorityAppointments(
-								selectedPriority)));
+				DatabaseController.getPriorityAppointmentsAsync(selectedPriority)
+					.whenComplete((appointments, failure) -> Platform.runLater(() -> {
+						if (DatabaseExecutor.logFailure(failure, "Loading the appointments")) {
+							this.appointmentList.getItems().clear();
+						} else if (appointments != null) {
+							this.appointmentList.setItems(
+									FXCollections.observableArrayList(appointments));
+						}
+					}));
 			}
 		});
 	}
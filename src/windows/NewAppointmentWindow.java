@@ -2,9 +2,14 @@ package windows;
 
 import static javafx.scene.layout.Priority.ALWAYS;
 
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -19,7 +24,11 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import database.ConflictDetector;
 import database.DatabaseController;
+import database.DatabaseExecutor;
+import database.FreeSlotFinder;
+import database.appointment.Appointment;
 import database.appointment.AppointmentGroup;
 import database.appointment.AppointmentItem;
 import database.category.Category;
@@ -31,9 +40,16 @@ import menus.ContextMenu;
 import menus.MenuItem;
 import util.Duration;
 import util.NumberField;
+import util.Translator;
 
 public class NewAppointmentWindow extends Window {
 	private static final String ADD_TAB_TEXT = " + ";
+	private static final long CONFLICT_BUDGET_MILLIS = 250;
+	private static final int SHOWN_CONFLICTS = 5;
+	private static final int SUGGEST_RANGE_DAYS = 28;
+	private static final long SUGGEST_DEFAULT_MINUTES = 60;
+	private static final FreeSlotFinder.WorkingHours WORKING_HOURS =
+			new FreeSlotFinder.WorkingHours(8 * 60, 18 * 60);
 	private TextField titleField = this.textFieldTranslatable("newAppointment.titlePrompt");
 	private TextArea descriptionArea = this.textAreaTranslatable("newAppointment.descriptionPrompt");
 	private Label categoryLabel = this.labelTranslatable("newAppointment.category.label");
@@ -73,9 +89,12 @@ public class NewAppointmentWindow extends Window {
 		private NumberField dateToMinuteField = this.numberFieldTranslatable(
 				"newAppointment.dateTo.minutePrompt", 0, 59);
 		private HBox dateToTimeBox = this.hBox(this.dateToHourField, this.dateToMinuteField);
+		private Button suggestTimeButton =
+				this.buttonTranslatable("newAppointment.suggestTime.label");
 		private VBox tabContentLeft = this.vBox(
 				this.dateFromLabel, this.dateFromPicker, this.dateFromTimeBox,
-				this.dateToLabel, this.dateToPicker, this.dateToTimeBox);
+				this.dateToLabel, this.dateToPicker, this.dateToTimeBox,
+				this.suggestTimeButton);
 		private Label durationLabel = this.labelTranslatable("newAppointment.duration.label");
 		private NumberField durationMonthsField =
 				this.numberFieldTranslatable("newAppointment.duration.monthsPrompt", 0, Integer.MAX_VALUE);
@@ -203,9 +222,64 @@ public class NewAppointmentWindow extends Window {
 			this.dateToHourField.textProperty().addListener(this.updateDuration);
 			this.dateToMinuteField.textProperty().addListener(this.updateDuration);
 
+			this.tooltipTranslatable(
+					"newAppointment.suggestTime.tooltip", this.suggestTimeButton);
+			this.suggestTimeButton.setOnAction(e -> this.suggestTime());
+
 			this.setContent(this.tabContent);
 		}
 
+		/**
+		 * Moves the dates of the tab to the next free slot within the working
+		 * hours, that fits the current duration.
+		 */
+		private void suggestTime() {
+			GregorianCalendar from = new GregorianCalendar();
+			if (this.dateFromPicker.getValue() != null && this.getDateFrom().after(from)) {
+				from = this.getDateFrom();
+			}
+			long minutes = TimeUnit.MILLISECONDS.toMinutes(
+					this.getDateTo().getTimeInMillis() - this.getDateFrom().getTimeInMillis());
+			long length = minutes > 0 ? minutes : NewAppointmentWindow.SUGGEST_DEFAULT_MINUTES;
+			GregorianCalendar to = (GregorianCalendar)from.clone();
+			to.add(GregorianCalendar.DAY_OF_MONTH, NewAppointmentWindow.SUGGEST_RANGE_DAYS);
+			GregorianCalendar start = from;
+			this.suggestTimeButton.setDisable(true);
+			DatabaseExecutor.supply(() -> FreeSlotFinder.findFreeSlots(
+					start, to, length, NewAppointmentWindow.WORKING_HOURS, 1))
+				.whenComplete((slots, failure) -> Platform.runLater(() -> {
+					this.suggestTimeButton.setDisable(false);
+					if (DatabaseExecutor.logFailure(failure, "Finding a free slot")) {
+						return;
+					}
+					if (slots == null || slots.isEmpty()) {
+						OptionsDialog.showMessageNamespace("newAppointment.dialogs.noFreeSlot");
+						return;
+					}
+					this.setDates(slots.get(0).getStartDate(), length);
+				}));
+		}
+
+		/**
+		 * Sets the start of the tab and the end after the given length.
+		 * @param start the start
+		 * @param length the length in minutes
+		 */
+		private void setDates(GregorianCalendar start, long length) {
+			GregorianCalendar end = (GregorianCalendar)start.clone();
+			end.add(GregorianCalendar.MINUTE, (int)length);
+			this.dateFromPicker.setValue(LocalDate.of(start.get(GregorianCalendar.YEAR),
+					start.get(GregorianCalendar.MONTH) + 1,
+					start.get(GregorianCalendar.DAY_OF_MONTH)));
+			this.dateFromHourField.setValue(start.get(GregorianCalendar.HOUR_OF_DAY));
+			this.dateFromMinuteField.setValue(start.get(GregorianCalendar.MINUTE));
+			this.dateToPicker.setValue(LocalDate.of(end.get(GregorianCalendar.YEAR),
+					end.get(GregorianCalendar.MONTH) + 1,
+					end.get(GregorianCalendar.DAY_OF_MONTH)));
+			this.dateToHourField.setValue(end.get(GregorianCalendar.HOUR_OF_DAY));
+			this.dateToMinuteField.setValue(end.get(GregorianCalendar.MINUTE));
+		}
+
 		private void setContextMenu() {
 			this.setContextMenu(new ContextMenu(
 					new MenuItem("newAppointment.tabContextMenu.close", e -> {
@@ -285,6 +359,11 @@ public class NewAppointmentWindow extends Window {
 			this.initTextField(numberField);
 		}
 
+		@Override
+		public void initButton(Button button) {
+			NewAppointmentWindow.this.initButton(button);
+		}
+
 		@Override
 		public void initDatePicker(DatePicker datePicker) {
 			datePicker.setMaxWidth(Double.MAX_VALUE);
@@ -348,13 +427,26 @@ public class NewAppointmentWindow extends Window {
 								tab.getRepetitionEnd()));
 					}
 				}
-				DatabaseController.addAppointment(new AppointmentGroup(
+				final AppointmentGroup group = new AppointmentGroup(
 						this.titleField.getText(),
 						this.descriptionArea.getText(),
 						this.categoryBox.getValue(),
 						this.priorityBox.getValue(),
-						appointments));
-				this.stage.close();
+						appointments);
+				this.acceptButton.setDisable(true);
+				DatabaseExecutor.supply(() -> ConflictDetector.detect(
+						group, NewAppointmentWindow.CONFLICT_BUDGET_MILLIS))
+					.whenComplete((report, failure) -> Platform.runLater(() -> {
+						if (DatabaseExecutor.logFailure(failure, "Checking for conflicts")) {
+							this.acceptButton.setDisable(false);
+							OptionsDialog.showMessageNamespace(
+									"newAppointment.dialogs.saveFailed");
+						} else if (report == null || !report.hasConflicts()
+								|| this.confirmConflicts(report)) {
+							this.addAppointment(group);
+						} else {
+							this.acceptButton.setDisable(false);
+						}}));
 			} else {
 				OptionsDialog.showMessageNamespace(
 						"newAppointment.dialogs.invalidData");
@@ -371,6 +463,53 @@ public class NewAppointmentWindow extends Window {
 		this.stage.showAndWait();
 	}
 
+	/**
+	 * Adds the Appointment in the background and closes the window once it
+	 * has been saved. If saving fails, the window stays open.
+	 * @param group the Appointment
+	 */
+	private void addAppointment(AppointmentGroup group) {
+		DatabaseController.addAppointmentsAsync(Collections.singletonList(group))
+			.whenComplete((result, failure) -> Platform.runLater(() -> {
+				// the ID of the Appointment is only assigned once it is committed
+				if (DatabaseExecutor.logFailure(failure, "Adding the appointment")
+						|| !group.hasId()) {
+					this.acceptButton.setDisable(false);
+					OptionsDialog.showMessageNamespace("newAppointment.dialogs.saveFailed");
+					return;
+				}
+				this.stage.close();
+			}));
+	}
+
+	/**
+	 * Asks the User whether to keep the new Appointment despite its conflicts.
+	 * @param report the found conflicts
+	 * @return whether the Appointment should be added
+	 */
+	private boolean confirmConflicts(ConflictDetector.Report report) {
+		SimpleDateFormat format = new SimpleDateFormat("dd.MM.yyyy HH:mm");
+		StringBuilder message = new StringBuilder(Translator.translate(
+				"newAppointment.dialogs.conflicts.message"));
+		List<ConflictDetector.Conflict> conflicts = report.getConflicts();
+		for (int i=0;i<Math.min(conflicts.size(), NewAppointmentWindow.SHOWN_CONFLICTS);i++) {
+			Appointment other = conflicts.get(i).getOther();
+			message.append("\n").append(format.format(other.getStartDate().getTime()))
+					.append(" - ").append(format.format(other.getEndDate().getTime()))
+					.append(": ").append(other.getSubject());
+		}
+		if (conflicts.size() > NewAppointmentWindow.SHOWN_CONFLICTS) {
+			message.append("\n...");
+		}
+		if (!report.isComplete()) {
+			message.append("\n\n").append(Translator.translate(
+					"newAppointment.dialogs.conflicts.incomplete"));
+		}
+		return OptionsDialog.getBoolean(
+				Translator.translate("newAppointment.dialogs.conflicts.title"),
+				message.toString());
+	}
+
 	@Override
 	public void initTextField(TextField textField) {
 		textField.setMaxWidth(Double.MAX_VALUE);
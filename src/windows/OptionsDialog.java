@@ -1,19 +1,24 @@
 package windows;
 
 import java.util.Arrays;
+import java.util.logging.Level;
 
 import javafx.beans.property.StringProperty;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonBar.ButtonData;
+import logging.LoggingController;
 import util.Translator;
 
 /**
- * Static Class that offers Comfort-Functions to handle {@link javafx.scene.control.Dialog Dialogs}.
+ * Static Class that offers Comfort-Functions to handle {@link javafx.scene.control.Dialog Dialogs}.<br/>
+ * If the system property {@code personalOrganizer.headless=true} is set, no
+ * Dialog is shown: the message is logged and the cancelling option is chosen.
  * @author Mario Schäper
  */
 public class OptionsDialog {
+	private static final boolean HEADLESS = Boolean.getBoolean("personalOrganizer.headless");
 	/**
 	 * The Attribute for a Title of a Dialog in a Language File.
 	 */
@@ -58,6 +63,13 @@ public class OptionsDialog {
 	 * @return the users choice
 	 */
 	public static ButtonType getOption(String title, String message, ButtonType...options) {
+		if (HEADLESS) {
+			LoggingController.log(Level.WARNING, title + ": " + message);
+			return Arrays.stream(options)
+					.filter(e -> e.getButtonData() == ButtonData.CANCEL_CLOSE)
+					.findFirst()
+					.orElse(options.length > 0 ? options[options.length - 1] : null);
+		}
 		Dialog<ButtonType> dialog = new Dialog<>();
 		dialog.setTitle(title);
 		dialog.getDialogPane().setContentText(message);